@@ -1,7 +1,8 @@
 package com.github.ksuid40;
 
 import java.math.BigInteger;
-import java.util.stream.IntStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import static java.lang.Math.abs;
 import static java.lang.Math.ceil;
@@ -24,9 +25,34 @@ final class Base62 {
     // VisibleForTesting
     static final BigInteger BASE = valueOf(BASE_62_CHARACTERS.length);
 
+    // VisibleForTesting
+    static final int ENCODED_168_BIT_LENGTH = 29;
+
+    // Results of decoding a 168-bit value other than its most significant 56 bits, which are never negative
+    static final long OVERFLOW = -1;
+    static final long INVALID = -2;
+
     private static final int BYTE_BITS = 8;
     private static final double DIGIT_BITS = log(BASE_62_CHARACTERS.length) / log(2);
 
+    // 168-bit values are held as three 56-bit words and divided in 28-bit limbs by 62^5,
+    // which keeps every intermediate remainder and dividend within a signed long.
+    private static final int WORD_BYTES = 7;
+    private static final int LIMB_BITS = 28;
+    private static final long LIMB_MASK = (1L << LIMB_BITS) - 1;
+    private static final long WORD_MASK = (1L << (2 * LIMB_BITS)) - 1;
+    private static final int CHUNK_DIGITS = 5;
+    private static final long CHUNK = 62L * 62 * 62 * 62 * 62;
+
+    private static final byte[] DIGITS = new byte[128];
+
+    static {
+        Arrays.fill(DIGITS, (byte) -1);
+        for (int i = 0; i < BASE_62_CHARACTERS.length; i++) {
+            DIGITS[BASE_62_CHARACTERS[i]] = (byte) i;
+        }
+    }
+
     private Base62() {
         throw new AssertionError("static utility class");
     }
@@ -55,6 +81,10 @@ final class Base62 {
      * @return a Base62 string
      */
     static String base62Encode(final byte[] bytes, final int length) {
+        if (bytes.length <= 3 * WORD_BYTES) {
+            return base62Encode168(bytes, length);
+        }
+
         final int size = (int) ceil((bytes.length * BYTE_BITS) / DIGIT_BITS);
         final StringBuilder sb = new StringBuilder(size);
 
@@ -78,6 +108,118 @@ final class Base62 {
         return sb.reverse().toString();
     }
 
+    /**
+     * Encode a 168-bit value, given as three big-endian 56-bit words, into exactly
+     * {@link #ENCODED_168_BIT_LENGTH} zero-padded Base62 characters.
+     * <p>
+     * Produces the same characters as {@link #base62Encode(byte[], int)} for the equivalent 21 bytes,
+     * without allocating.
+     *
+     * @param high most significant 56 bits
+     * @param middle middle 56 bits
+     * @param low least significant 56 bits
+     * @param dst destination for the characters
+     * @param offset index in dst of the first character
+     */
+    static void encode168(final long high, final long middle, final long low, final char[] dst, final int offset) {
+        encode168(high, middle, low, dst, null, null, offset);
+    }
+
+    /**
+     * Encode a 168-bit value as {@link #encode168(long, long, long, char[], int)} does, writing one ASCII byte per character.
+     *
+     * @param high most significant 56 bits
+     * @param middle middle 56 bits
+     * @param low least significant 56 bits
+     * @param dst destination for the ASCII bytes
+     * @param offset index in dst of the first byte
+     */
+    static void encode168Ascii(final long high, final long middle, final long low, final byte[] dst, final int offset) {
+        encode168(high, middle, low, null, dst, null, offset);
+    }
+
+    /**
+     * Encode a 168-bit value as {@link #encode168Ascii(long, long, long, byte[], int)} does into a buffer,
+     * using absolute puts so that the buffer's position is left unchanged.
+     *
+     * @param high most significant 56 bits
+     * @param middle middle 56 bits
+     * @param low least significant 56 bits
+     * @param dst destination for the ASCII bytes
+     * @param index index in dst of the first byte
+     */
+    static void encode168Ascii(final long high, final long middle, final long low, final ByteBuffer dst, final int index) {
+        encode168(high, middle, low, null, null, dst, index);
+    }
+
+    private static void encode168(final long high, final long middle, final long low,
+                                  final char[] chars, final byte[] bytes, final ByteBuffer buffer, final int offset) {
+        final int length = chars != null ? chars.length : bytes != null ? bytes.length : buffer.limit();
+        if (offset < 0 || offset > length - ENCODED_168_BIT_LENGTH) {
+            throw new IndexOutOfBoundsException("no room for " + ENCODED_168_BIT_LENGTH + " characters at " + offset);
+        }
+
+        long l0 = high >>> LIMB_BITS;
+        long l1 = high & LIMB_MASK;
+        long l2 = middle >>> LIMB_BITS;
+        long l3 = middle & LIMB_MASK;
+        long l4 = low >>> LIMB_BITS;
+        long l5 = low & LIMB_MASK;
+
+        int i = offset + ENCODED_168_BIT_LENGTH;
+        while (i > offset) {
+            long r = l0;
+            l0 = r / CHUNK;
+            r = ((r - l0 * CHUNK) << LIMB_BITS) | l1;
+            l1 = r / CHUNK;
+            r = ((r - l1 * CHUNK) << LIMB_BITS) | l2;
+            l2 = r / CHUNK;
+            r = ((r - l2 * CHUNK) << LIMB_BITS) | l3;
+            l3 = r / CHUNK;
+            r = ((r - l3 * CHUNK) << LIMB_BITS) | l4;
+            l4 = r / CHUNK;
+            r = ((r - l4 * CHUNK) << LIMB_BITS) | l5;
+            l5 = r / CHUNK;
+
+            int chunk = (int) (r - l5 * CHUNK);
+            for (int digit = 0; digit < CHUNK_DIGITS && i > offset; digit++) {
+                final char c = BASE_62_CHARACTERS[chunk % 62];
+                if (chars != null) {
+                    chars[--i] = c;
+                } else if (bytes != null) {
+                    bytes[--i] = (byte) c;
+                } else {
+                    buffer.put(--i, (byte) c);
+                }
+                chunk /= 62;
+            }
+        }
+    }
+
+    private static String base62Encode168(final byte[] bytes, final int length) {
+        long high = 0;
+        long middle = 0;
+        long low = 0;
+        for (final byte b : bytes) {
+            high = (high << BYTE_BITS) | (middle >>> (2 * LIMB_BITS - BYTE_BITS));
+            middle = ((middle << BYTE_BITS) | (low >>> (2 * LIMB_BITS - BYTE_BITS))) & WORD_MASK;
+            low = ((low << BYTE_BITS) | (b & 0xFF)) & WORD_MASK;
+        }
+
+        final int size = Math.max(length, ENCODED_168_BIT_LENGTH);
+        final char[] chars = new char[size];
+        final int encodedOffset = size - ENCODED_168_BIT_LENGTH;
+        Arrays.fill(chars, 0, encodedOffset, '0');
+        encode168(high, middle, low, chars, encodedOffset);
+
+        int start = encodedOffset;
+        while (start < size && chars[start] == '0') {
+            start++;
+        }
+        start = Math.min(start, size - length);
+        return new String(chars, start, size - start);
+    }
+
     /**
      * Decode a Base62 string into bytes.
      *
@@ -85,24 +227,151 @@ final class Base62 {
      * @return decoded bytes
      */
     static byte[] base62Decode(final String s) {
-        return IntStream.range(0, s.length())
-                        .mapToObj(s::charAt)
-                        .map(Base62::indexOf)
-                        .map(BigInteger::valueOf)
-                        .reduce(ZERO, (result, index) -> result.multiply(BASE).add(index))
-                        .toByteArray();
+        // Decode one byte to the right so the sign byte BigInteger.toByteArray() would add always fits
+        final byte[] bytes = new byte[3 * WORD_BYTES + 1];
+        if (decode168(s, 0, s.length(), bytes, 1) == OVERFLOW) {
+            BigInteger value = ZERO;
+            for (int i = 0; i < s.length(); i++) {
+                value = value.multiply(BASE).add(valueOf(indexOf(s.charAt(i))));
+            }
+            return value.toByteArray();
+        }
+
+        int first = 1;
+        while (first < bytes.length && bytes[first] == 0) {
+            first++;
+        }
+        if (first == bytes.length || bytes[first] < 0) {
+            first--;
+        }
+        return Arrays.copyOfRange(bytes, first, bytes.length);
     }
 
-    // VisibleForTesting
-    static int indexOf(final char c) {
-        if (c >= '0' && c <= '9') {
-            return (c - 48);
+    /**
+     * Decode Base62 characters into a 168-bit value, written as 21 big-endian bytes.
+     * <p>
+     * Leading zeros are permitted, so any number of characters may be decoded
+     * as long as the value fits in 168 bits.
+     *
+     * @param s characters to decode
+     * @param start index of the first character to decode
+     * @param end index after the last character to decode
+     * @param dst destination for the bytes, or null to only validate
+     * @param offset index in dst of the first byte
+     * @return the most significant 56 bits of the value, or {@link #OVERFLOW} if the value does not fit
+     *         in 168 bits, in which case dst is untouched
+     * @throws IllegalArgumentException if a character is not a Base62 character
+     */
+    static long decode168(final CharSequence s, final int start, final int end, final byte[] dst, final int offset) {
+        return decode168(s, null, null, start, end, dst, offset, true);
+    }
+
+    /**
+     * Decode Base62 characters as {@link #decode168(CharSequence, int, int, byte[], int)} does,
+     * reporting invalid characters by result rather than by exception.
+     *
+     * @param s characters to decode
+     * @param start index of the first character to decode
+     * @param end index after the last character to decode
+     * @param dst destination for the bytes, or null to only validate
+     * @param offset index in dst of the first byte
+     * @return the most significant 56 bits of the value, {@link #OVERFLOW} if the value does not fit in 168 bits,
+     *         or {@link #INVALID} if a character is not a Base62 character, in which cases dst is untouched
+     */
+    static long tryDecode168(final CharSequence s, final int start, final int end, final byte[] dst, final int offset) {
+        return decode168(s, null, null, start, end, dst, offset, false);
+    }
+
+    /**
+     * Decode ASCII Base62 characters as {@link #decode168(CharSequence, int, int, byte[], int)} does.
+     *
+     * @param src ASCII characters to decode
+     * @param start index of the first byte to decode
+     * @param end index after the last byte to decode
+     * @param dst destination for the bytes, or null to only validate
+     * @param offset index in dst of the first byte
+     * @return the most significant 56 bits of the value, or {@link #OVERFLOW} if the value does not fit
+     *         in 168 bits, in which case dst is untouched
+     * @throws IllegalArgumentException if a byte is not a Base62 character
+     */
+    static long decode168Ascii(final byte[] src, final int start, final int end, final byte[] dst, final int offset) {
+        return decode168(null, src, null, start, end, dst, offset, true);
+    }
+
+    /**
+     * Decode ASCII Base62 characters as {@link #decode168(CharSequence, int, int, byte[], int)} does,
+     * reading at absolute indexes without moving the buffer's position.
+     *
+     * @param src ASCII characters to decode
+     * @param start index of the first byte to decode
+     * @param end index after the last byte to decode
+     * @param dst destination for the bytes, or null to only validate
+     * @param offset index in dst of the first byte
+     * @return the most significant 56 bits of the value, or {@link #OVERFLOW} if the value does not fit
+     *         in 168 bits, in which case dst is untouched
+     * @throws IllegalArgumentException if a byte is not a Base62 character
+     */
+    static long decode168Ascii(final ByteBuffer src, final int start, final int end, final byte[] dst, final int offset) {
+        return decode168(null, null, src, start, end, dst, offset, true);
+    }
+
+    private static long decode168(final CharSequence chars, final byte[] bytes, final ByteBuffer buffer,
+                                  final int start, final int end, final byte[] dst, final int offset,
+                                  final boolean throwIfInvalid) {
+        long high = 0;
+        long middle = 0;
+        long low = 0;
+        for (int i = start; i < end; i++) {
+            final int digit = digit(charAt(chars, bytes, buffer, i), throwIfInvalid);
+            if (digit < 0) {
+                return INVALID;
+            }
+            low = low * BASE_62_CHARACTERS.length + digit;
+            middle = middle * BASE_62_CHARACTERS.length + (low >>> (2 * LIMB_BITS));
+            low &= WORD_MASK;
+            high = high * BASE_62_CHARACTERS.length + (middle >>> (2 * LIMB_BITS));
+            middle &= WORD_MASK;
+            if (high > WORD_MASK) {
+                // Invalid characters are still reported ahead of overflow
+                for (int j = i + 1; j < end; j++) {
+                    if (digit(charAt(chars, bytes, buffer, j), throwIfInvalid) < 0) {
+                        return INVALID;
+                    }
+                }
+                return OVERFLOW;
+            }
         }
-        if (c >= 'A' && c <= 'Z') {
-            return (c - 55);
+        if (dst != null) {
+            putWord(high, dst, offset);
+            putWord(middle, dst, offset + WORD_BYTES);
+            putWord(low, dst, offset + 2 * WORD_BYTES);
         }
-        if (c >= 'a' && c <= 'z') {
-            return (c - 61);
+        return high;
+    }
+
+    private static int digit(final char c, final boolean throwIfInvalid) {
+        final int digit = c < DIGITS.length ? DIGITS[c] : -1;
+        return digit >= 0 || !throwIfInvalid ? digit : indexOf(c);
+    }
+
+    private static char charAt(final CharSequence chars, final byte[] bytes, final ByteBuffer buffer, final int index) {
+        if (chars != null) {
+            return chars.charAt(index);
+        }
+        return (char) ((bytes != null ? bytes[index] : buffer.get(index)) & 0xFF);
+    }
+
+    private static void putWord(final long word, final byte[] dst, final int offset) {
+        for (int i = 0; i < WORD_BYTES; i++) {
+            dst[offset + i] = (byte) (word >>> ((WORD_BYTES - 1 - i) * BYTE_BITS));
+        }
+    }
+
+    // VisibleForTesting
+    static int indexOf(final char c) {
+        final int index = c < DIGITS.length ? DIGITS[c] : -1;
+        if (index >= 0) {
+            return index;
         }
         throw new IllegalArgumentException("'" + c + "' is not a valid Base62 character");
     }
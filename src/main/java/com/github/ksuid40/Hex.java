@@ -1,5 +1,7 @@
 package com.github.ksuid40;
 
+import java.util.Arrays;
+
 /**
  * Utility class to encode/decode bytes into hexadecimal strings.
  * <p>
@@ -12,6 +14,23 @@ final class Hex {
     // VisibleForTesting
     static final char[] HEX_CHARACTERS = "0123456789ABCDEF".toCharArray();
 
+    // Both characters of every byte value, upper nibble first
+    private static final char[] HEX_PAIRS = new char[512];
+    // Value of every ASCII hexadecimal character, -1 for any other character
+    private static final byte[] HEX_VALUES = new byte[128];
+
+    static {
+        for (int b = 0; b < 256; b++) {
+            HEX_PAIRS[2 * b] = HEX_CHARACTERS[b >>> 4];
+            HEX_PAIRS[2 * b + 1] = HEX_CHARACTERS[b & 0xF];
+        }
+        Arrays.fill(HEX_VALUES, (byte) -1);
+        for (int i = 0; i < HEX_CHARACTERS.length; i++) {
+            HEX_VALUES[HEX_CHARACTERS[i]] = (byte) i;
+            HEX_VALUES[Character.toLowerCase(HEX_CHARACTERS[i])] = (byte) i;
+        }
+    }
+
     private Hex() {
         throw new AssertionError("static utility class");
     }
@@ -40,50 +59,119 @@ final class Hex {
         return bytes != null ? printHexBinary(bytes) : null;
     }
 
-
-    private static String printHexBinary(final byte[] bytes) {
-        final StringBuilder r = new StringBuilder(bytes.length * 2);
-        for (final byte b : bytes) {
-            r.append(HEX_CHARACTERS[(b >> 4) & 0xF]);
-            r.append(HEX_CHARACTERS[(b & 0xF)]);
+    /**
+     * Encodes bytes as upper-case hexadecimal characters into a char array.
+     *
+     * @param src bytes to encode
+     * @param srcOffset index in src of the first byte
+     * @param length number of bytes to encode
+     * @param dst destination for the 2 * length characters
+     * @param dstOffset index in dst of the first character
+     * @throws IndexOutOfBoundsException if a range is outside of its array
+     */
+    static void hexEncode(final byte[] src, final int srcOffset, final int length, final char[] dst, final int dstOffset) {
+        checkRange(srcOffset, length, src.length);
+        checkRange(dstOffset, 2 * length, dst.length);
+        for (int i = 0; i < length; i++) {
+            final int pair = (src[srcOffset + i] & 0xFF) << 1;
+            dst[dstOffset + 2 * i] = HEX_PAIRS[pair];
+            dst[dstOffset + 2 * i + 1] = HEX_PAIRS[pair + 1];
         }
-        return r.toString();
     }
 
-    private static byte[] parseHexBinary(final String hex) {
-        final int len = hex.length();
-
-        // "111" is not a valid hex encoding.
-        if (len % 2 != 0) {
-            throw new IllegalArgumentException("hex string needs to be even-length: " + hex);
+    /**
+     * Encodes bytes as upper-case hexadecimal ASCII characters into a byte array.
+     *
+     * @param src bytes to encode
+     * @param srcOffset index in src of the first byte
+     * @param length number of bytes to encode
+     * @param dst destination for the 2 * length characters
+     * @param dstOffset index in dst of the first character
+     * @throws IndexOutOfBoundsException if a range is outside of its array
+     */
+    static void hexEncodeAscii(final byte[] src, final int srcOffset, final int length, final byte[] dst, final int dstOffset) {
+        checkRange(srcOffset, length, src.length);
+        checkRange(dstOffset, 2 * length, dst.length);
+        for (int i = 0; i < length; i++) {
+            final int pair = (src[srcOffset + i] & 0xFF) << 1;
+            dst[dstOffset + 2 * i] = (byte) HEX_PAIRS[pair];
+            dst[dstOffset + 2 * i + 1] = (byte) HEX_PAIRS[pair + 1];
         }
+    }
 
-        final byte[] out = new byte[len / 2];
+    /**
+     * Encodes the low bytes of a value, most significant first, as upper-case hexadecimal characters into a char array.
+     *
+     * @param value value to encode
+     * @param length number of low bytes of value to encode, at most 8
+     * @param dst destination for the 2 * length characters
+     * @param dstOffset index in dst of the first character
+     * @throws IndexOutOfBoundsException if there is no room for the characters at dstOffset
+     */
+    static void hexEncode(final long value, final int length, final char[] dst, final int dstOffset) {
+        checkRange(dstOffset, 2 * length, dst.length);
+        for (int i = 0; i < length; i++) {
+            final int pair = (int) (value >>> (8 * (length - 1 - i)) & 0xFF) << 1;
+            dst[dstOffset + 2 * i] = HEX_PAIRS[pair];
+            dst[dstOffset + 2 * i + 1] = HEX_PAIRS[pair + 1];
+        }
+    }
 
-        for (int i = 0; i < len; i += 2) {
-            final int h = hexToBin(hex.charAt(i));
-            final int l = hexToBin(hex.charAt(i + 1));
-            if (h == -1 || l == -1) {
-                throw new IllegalArgumentException("contains illegal character for hex: " + hex);
+    /**
+     * Decodes pairs of hexadecimal characters, in either case, into a byte array.
+     *
+     * @param hex characters to decode
+     * @param start index of the first character to decode
+     * @param end index after the last character to decode
+     * @param dst destination for the (end - start) / 2 bytes
+     * @param dstOffset index in dst of the first byte
+     * @throws IllegalArgumentException if an odd number of characters or illegal characters are supplied
+     * @throws IndexOutOfBoundsException if a range is outside of its array or sequence
+     */
+    static void hexDecode(final CharSequence hex, final int start, final int end, final byte[] dst, final int dstOffset) {
+        checkRange(start, end - start, hex.length());
+        if ((end - start) % 2 != 0) {
+            throw new IllegalArgumentException("hex string needs to be even-length: " + hex.subSequence(start, end));
+        }
+        checkRange(dstOffset, (end - start) / 2, dst.length);
+        for (int i = start, j = dstOffset; i < end; i += 2, j++) {
+            final int b = decodePair(hex.charAt(i), hex.charAt(i + 1));
+            if (b < 0) {
+                throw new IllegalArgumentException("contains illegal character for hex: " + hex.subSequence(start, end));
             }
-
-            out[i / 2] = (byte) (h * 16 + l);
+            dst[j] = (byte) b;
         }
+    }
 
+    private static String printHexBinary(final byte[] bytes) {
+        final char[] chars = new char[bytes.length * 2];
+        hexEncode(bytes, 0, bytes.length, chars, 0);
+        return new String(chars);
+    }
+
+    private static byte[] parseHexBinary(final String hex) {
+        final byte[] out = new byte[hex.length() / 2];
+        hexDecode(hex, 0, hex.length(), out, 0);
         return out;
     }
 
-    private static int hexToBin(final char ch) {
-        if ('0' <= ch && ch <= '9') {
-            return ch - '0';
-        }
-        if ('A' <= ch && ch <= 'F') {
-            return ch - 'A' + 10;
+    /**
+     * Decode two hexadecimal characters, returning a negative value if either is illegal.
+     */
+    private static int decodePair(final char h, final char l) {
+        // One check covers non-ASCII characters, the table covers everything else
+        if ((h | l) >= HEX_VALUES.length) {
+            return -1;
         }
-        if ('a' <= ch && ch <= 'f') {
-            return ch - 'a' + 10;
+        final int high = HEX_VALUES[h];
+        final int low = HEX_VALUES[l];
+        return (high | low) < 0 ? -1 : high << 4 | low;
+    }
+
+    private static void checkRange(final int offset, final int length, final int size) {
+        if (offset < 0 || length < 0 || offset > size - length) {
+            throw new IndexOutOfBoundsException("range [" + offset + ", " + (offset + length) + ") is outside of length " + size);
         }
-        return -1;
     }
 
 }
@@ -1,16 +1,30 @@
 package com.github.ksuid40;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.Arrays;
-import java.util.Comparator;
-import java.util.Objects;
+import java.util.Optional;
 import java.util.StringJoiner;
 
-import static com.github.ksuid40.Base62.base62Decode;
-import static com.github.ksuid40.Base62.base62Encode;
+import static com.github.ksuid40.Base62.decode168;
+import static com.github.ksuid40.Base62.decode168Ascii;
+import static com.github.ksuid40.Base62.encode168;
+import static com.github.ksuid40.Base62.encode168Ascii;
+import static com.github.ksuid40.Base62.tryDecode168;
 import static com.github.ksuid40.Hex.hexEncode;
 
 /**
@@ -29,44 +43,58 @@ public class Ksuid40 implements Serializable, Comparable<Ksuid40> {
     private static final int TIMESTAMP_BYTES = 5;
     public static final int TOTAL_BYTES = TIMESTAMP_BYTES + PAYLOAD_BYTES;
     private static final int PAD_TO_LENGTH = 29;
-    private static final Comparator<Ksuid40> COMPARATOR = Comparator.comparingLong(Ksuid40::getTimestamp)
-                                                                  .thenComparing(Ksuid40::getPayload);
+    private static final long WORD_MASK = 0xFFFFFFFFFFFFFFL;
+    // Strings decoding to fewer than 20 significant bytes have never been accepted
+    private static final long MINIMUM_HIGH_WORD = 1L << 39;
+
+    // Set -Dcom.github.ksuid40.Ksuid40.cacheString=false to keep instances lean, e.g. for large in-memory collections
+    private static final boolean CACHE_STRING =
+            Boolean.parseBoolean(System.getProperty(Ksuid40.class.getName() + ".cacheString", "true"));
+
+    private static final long serialVersionUID = -6247815884786770487L;
+
+    // The serialized form predates the word representation, keep it readable both ways
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("timestamp", long.class),
+            new ObjectStreamField("payload", byte[].class),
+            new ObjectStreamField("ksuidBytes", byte[].class)
+    };
 
     private final long timestamp;
-    private final byte[] payload;
-    private final byte[] ksuidBytes;
+    private final long payloadHigh;
+    private final long payloadLow;
+
+    private transient String string;
 
     private Ksuid40(final Builder builder) {
         if (builder.ksuidBytes != null) {
-            if (builder.ksuidBytes.length < (PAYLOAD_BYTES + 4) ||  builder.ksuidBytes.length > TOTAL_BYTES) {
+            final byte[] bytes = builder.ksuidBytes;
+            if (bytes.length < (PAYLOAD_BYTES + 4) || bytes.length > TOTAL_BYTES) {
                 throw new IllegalArgumentException("ksuid is not expected length of " + TOTAL_BYTES + " ( 20-21 ) bytes");
             }
-            ksuidBytes = new byte[TOTAL_BYTES];
-            System.arraycopy(builder.ksuidBytes, 0, ksuidBytes, TOTAL_BYTES - builder.ksuidBytes.length, builder.ksuidBytes.length);
-            final ByteBuffer byteBuffer = ByteBuffer.wrap(ksuidBytes);
-            byte[] timeStampBytes = new byte[LONG_SIZE_BYTES];
-            byteBuffer.get(timeStampBytes, LONG_SIZE_BYTES - TIMESTAMP_BYTES, TIMESTAMP_BYTES);
-            timestamp = ByteBuffer.wrap(timeStampBytes, 0, LONG_SIZE_BYTES).getLong();
-            payload = new byte[PAYLOAD_BYTES];
-            byteBuffer.get(payload);
+            final int payloadOffset = bytes.length - PAYLOAD_BYTES;
+            timestamp = readLong(bytes, 0, payloadOffset);
+            payloadHigh = readLong(bytes, payloadOffset, payloadOffset + LONG_SIZE_BYTES);
+            payloadLow = readLong(bytes, payloadOffset + LONG_SIZE_BYTES, bytes.length);
+            string = CACHE_STRING ? builder.ksuidString : null;
         } else {
             if (builder.payload.length != PAYLOAD_BYTES) {
                 throw new IllegalArgumentException("payload is not expected length of " + PAYLOAD_BYTES + " bytes");
             }
 
             timestamp = builder.timestamp;
-
-            byte[] timeStampBytes = new byte[LONG_SIZE_BYTES];
-            ByteBuffer.wrap(timeStampBytes).putLong(timestamp);
-
-            payload = builder.payload;
-            ksuidBytes = ByteBuffer.allocate(TOTAL_BYTES)
-                                   .put(timeStampBytes, LONG_SIZE_BYTES - TIMESTAMP_BYTES, TIMESTAMP_BYTES)
-                                   .put(payload)
-                                   .array();
+            payloadHigh = readLong(builder.payload, 0, LONG_SIZE_BYTES);
+            payloadLow = readLong(builder.payload, LONG_SIZE_BYTES, PAYLOAD_BYTES);
         }
     }
 
+    private Ksuid40(final long timestamp, final long payloadHigh, final long payloadLow, final String string) {
+        this.timestamp = timestamp;
+        this.payloadHigh = payloadHigh;
+        this.payloadLow = payloadLow;
+        this.string = CACHE_STRING ? string : null;
+    }
+
     /**
      * A builder to create a {@link Ksuid40}.
      *
@@ -98,9 +126,113 @@ public class Ksuid40 implements Serializable, Comparable<Ksuid40> {
      * @return  A {@code Ksuid} with the specified value
      */
     public static Ksuid40 fromString(final String ksuidString) {
-        return new Builder()
-                .withKsuidString(ksuidString)
-                .build();
+        return parse(ksuidString, 0, ksuidString.length());
+    }
+
+    /**
+     * Parses a {@code Ksuid} from a range of characters holding its string representation,
+     * e.g. an id embedded in a URL path, without copying the range out first.
+     *
+     * @param s characters containing a {@code Ksuid}
+     * @param start index of the first character of the {@code Ksuid}
+     * @param end index after the last character of the {@code Ksuid}
+     * @return a {@code Ksuid} with the specified value
+     * @throws IllegalArgumentException if the range does not hold a valid {@code Ksuid}
+     * @throws IndexOutOfBoundsException if the range is outside of s
+     */
+    public static Ksuid40 parse(final CharSequence s, final int start, final int end) {
+        if (start < 0 || start > end || end > s.length()) {
+            throw new IndexOutOfBoundsException("range [" + start + ", " + end + ") is outside of length " + s.length());
+        }
+        final byte[] bytes = new byte[TOTAL_BYTES];
+        checkDecoded(decode168(s, start, end, bytes, 0));
+        // Only the fixed-width form is canonical, padded or short strings are re-encoded on demand
+        final boolean canonical = s instanceof String && start == 0 && end == PAD_TO_LENGTH && s.length() == PAD_TO_LENGTH;
+        return readKsuid(bytes, 0, canonical ? (String) s : null);
+    }
+
+    /**
+     * Creates a {@code Ksuid} from its 21 {@link #asBytes() bytes} within a larger array,
+     * e.g. a record read from a file, without copying them out first.
+     *
+     * @param src bytes containing a {@code Ksuid}
+     * @param offset index of the first byte of the {@code Ksuid}
+     * @return a {@code Ksuid} with the specified value
+     * @throws IndexOutOfBoundsException if there are fewer than 21 bytes at offset
+     */
+    public static Ksuid40 fromBytes(final byte[] src, final int offset) {
+        if (offset < 0 || offset > src.length - TOTAL_BYTES) {
+            throw new IndexOutOfBoundsException("no room for " + TOTAL_BYTES + " bytes at " + offset);
+        }
+        return readKsuid(src, offset, null);
+    }
+
+    /**
+     * Checks whether characters hold the string representation of a {@code Ksuid},
+     * i.e. whether {@link #fromString} would accept them, without allocating or throwing.
+     *
+     * @param s characters to check, may be null
+     * @return true if s is a valid {@code Ksuid}
+     */
+    public static boolean isValid(final CharSequence s) {
+        return s != null && tryDecode168(s, 0, s.length(), null, 0) >= MINIMUM_HIGH_WORD;
+    }
+
+    /**
+     * Parses a {@code Ksuid} from its string representation, reporting invalid input by result
+     * rather than by exception, e.g. for untrusted ids in request handling.
+     *
+     * @param s characters holding a {@code Ksuid}, may be null
+     * @return a {@code Ksuid} with the specified value, or empty if s is not a valid {@code Ksuid}
+     */
+    public static Optional<Ksuid40> tryParse(final CharSequence s) {
+        if (s == null) {
+            return Optional.empty();
+        }
+        final byte[] bytes = new byte[TOTAL_BYTES];
+        if (tryDecode168(s, 0, s.length(), bytes, 0) < MINIMUM_HIGH_WORD) {
+            return Optional.empty();
+        }
+        final boolean canonical = s instanceof String && s.length() == PAD_TO_LENGTH;
+        return Optional.of(readKsuid(bytes, 0, canonical ? (String) s : null));
+    }
+
+    /**
+     * Parses a {@code Ksuid} from the 29 ASCII characters of its string representation.
+     *
+     * @param src bytes containing a {@code Ksuid}
+     * @param offset index of the first byte of the {@code Ksuid}
+     * @return a {@code Ksuid} with the specified value
+     * @throws IllegalArgumentException if the bytes do not hold a valid {@code Ksuid}
+     * @throws IndexOutOfBoundsException if there are fewer than 29 bytes at offset
+     */
+    public static Ksuid40 parseAscii(final byte[] src, final int offset) {
+        if (offset < 0 || offset > src.length - PAD_TO_LENGTH) {
+            throw new IndexOutOfBoundsException("no room for " + PAD_TO_LENGTH + " bytes at " + offset);
+        }
+        final byte[] bytes = new byte[TOTAL_BYTES];
+        checkDecoded(decode168Ascii(src, offset, offset + PAD_TO_LENGTH, bytes, 0));
+        return readKsuid(bytes, 0, null);
+    }
+
+    /**
+     * Parses a {@code Ksuid} from the 29 ASCII characters of its string representation
+     * at the buffer's position, advancing it.
+     *
+     * @param src buffer containing a {@code Ksuid}
+     * @return a {@code Ksuid} with the specified value
+     * @throws IllegalArgumentException if the bytes do not hold a valid {@code Ksuid}, the position is then unchanged
+     * @throws BufferUnderflowException if fewer than 29 bytes remain
+     */
+    public static Ksuid40 parse(final ByteBuffer src) {
+        if (src.remaining() < PAD_TO_LENGTH) {
+            throw new BufferUnderflowException();
+        }
+        final int position = src.position();
+        final byte[] bytes = new byte[TOTAL_BYTES];
+        checkDecoded(decode168Ascii(src, position, position + PAD_TO_LENGTH, bytes, 0));
+        src.position(position + PAD_TO_LENGTH);
+        return readKsuid(bytes, 0, null);
     }
 
     /**
@@ -109,7 +241,11 @@ public class Ksuid40 implements Serializable, Comparable<Ksuid40> {
      * @return KSUID bytes
      */
     public byte[] asBytes() {
-        return Arrays.copyOf(ksuidBytes, ksuidBytes.length);
+        final byte[] bytes = new byte[TOTAL_BYTES];
+        writeLong(timestamp, bytes, 0, TIMESTAMP_BYTES);
+        writeLong(payloadHigh, bytes, TIMESTAMP_BYTES, TIMESTAMP_BYTES + LONG_SIZE_BYTES);
+        writeLong(payloadLow, bytes, TIMESTAMP_BYTES + LONG_SIZE_BYTES, TOTAL_BYTES);
+        return bytes;
     }
 
     /**
@@ -129,7 +265,9 @@ public class Ksuid40 implements Serializable, Comparable<Ksuid40> {
      * @return KSUID hex string
      */
     public String asRaw() {
-        return hexEncode(ksuidBytes);
+        final char[] chars = new char[2 * TOTAL_BYTES];
+        writeRawHexTo(chars, 0);
+        return new String(chars);
     }
 
     /**
@@ -175,7 +313,9 @@ public class Ksuid40 implements Serializable, Comparable<Ksuid40> {
      * @return KSUID payload component
      */
     public String getPayload() {
-        return hexEncode(payload);
+        final char[] chars = new char[2 * PAYLOAD_BYTES];
+        writePayloadHexTo(chars, 0);
+        return new String(chars);
     }
 
     /**
@@ -213,8 +353,8 @@ public class Ksuid40 implements Serializable, Comparable<Ksuid40> {
         return new StringJoiner(", ", this.getClass().getSimpleName() + "[", "]")
                 .add("string = " + toString())
                 .add("timestamp = " + timestamp)
-                .add("payload = " + Arrays.toString(payload))
-                .add("ksuidBytes = " + Arrays.toString(ksuidBytes))
+                .add("payload = " + Arrays.toString(payloadBytes()))
+                .add("ksuidBytes = " + Arrays.toString(asBytes()))
                 .toString();
     }
 
@@ -229,17 +369,14 @@ public class Ksuid40 implements Serializable, Comparable<Ksuid40> {
 
         final Ksuid40 that = (Ksuid40) o;
 
-        return Objects.equals(this.timestamp, that.timestamp) &&
-                Arrays.equals(this.payload, that.payload) &&
-                Arrays.equals(this.ksuidBytes, that.ksuidBytes);
+        return this.timestamp == that.timestamp &&
+                this.payloadHigh == that.payloadHigh &&
+                this.payloadLow == that.payloadLow;
     }
 
     @Override
     public final int hashCode() {
-        int result = Objects.hash(timestamp);
-        result = 31 * result + Arrays.hashCode(payload);
-        result = 31 * result + Arrays.hashCode(ksuidBytes);
-        return result;
+        return hash(timestamp, payloadHigh, payloadLow);
     }
 
     /**
@@ -249,12 +386,316 @@ public class Ksuid40 implements Serializable, Comparable<Ksuid40> {
      */
     @Override
     public String toString() {
-        return base62Encode(ksuidBytes, PAD_TO_LENGTH);
+        // Racy single check, as in String.hashCode(): concurrent callers at worst encode twice
+        String s = string;
+        if (s == null) {
+            final char[] chars = new char[PAD_TO_LENGTH];
+            encode168(highWord(), middleWord(), lowWord(), chars, 0);
+            s = new String(chars);
+            if (CACHE_STRING) {
+                string = s;
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Write the {@link #toString() string representation} of this {@code Ksuid} into a char array.
+     *
+     * @param dst destination for the 29 characters
+     * @param offset index in dst of the first character
+     * @throws IndexOutOfBoundsException if there is no room for 29 characters at offset
+     */
+    public void encodeTo(final char[] dst, final int offset) {
+        final String s = string;
+        if (s != null) {
+            if (offset < 0 || offset > dst.length - PAD_TO_LENGTH) {
+                throw new IndexOutOfBoundsException("no room for " + PAD_TO_LENGTH + " characters at " + offset);
+            }
+            s.getChars(0, PAD_TO_LENGTH, dst, offset);
+        } else {
+            encode168(highWord(), middleWord(), lowWord(), dst, offset);
+        }
+    }
+
+    /**
+     * Write the {@link #toString() string representation} of this {@code Ksuid} into a byte array as ASCII.
+     *
+     * @param dst destination for the 29 bytes
+     * @param offset index in dst of the first byte
+     * @throws IndexOutOfBoundsException if there is no room for 29 bytes at offset
+     */
+    public void encodeAsciiTo(final byte[] dst, final int offset) {
+        encode168Ascii(highWord(), middleWord(), lowWord(), dst, offset);
+    }
+
+    /**
+     * Write the {@link #toString() string representation} of this {@code Ksuid} as 29 ASCII bytes
+     * at the buffer's position, advancing it.
+     *
+     * @param dst destination buffer
+     * @throws BufferOverflowException if fewer than 29 bytes remain
+     * @throws ReadOnlyBufferException if the buffer is read-only
+     */
+    public void encodeTo(final ByteBuffer dst) {
+        if (dst.remaining() < PAD_TO_LENGTH) {
+            throw new BufferOverflowException();
+        }
+        if (dst.hasArray()) {
+            encodeAsciiTo(dst.array(), dst.arrayOffset() + dst.position());
+            dst.position(dst.position() + PAD_TO_LENGTH);
+        } else {
+            final int position = dst.position();
+            encode168Ascii(highWord(), middleWord(), lowWord(), dst, position);
+            dst.position(position + PAD_TO_LENGTH);
+        }
+    }
+
+    /**
+     * Write the {@link #asRaw() raw hex representation} of this {@code Ksuid} into a char array.
+     *
+     * @param dst destination for the 42 characters
+     * @param offset index in dst of the first character
+     * @throws IndexOutOfBoundsException if there is no room for 42 characters at offset
+     */
+    public void writeRawHexTo(final char[] dst, final int offset) {
+        if (offset < 0 || offset > dst.length - 2 * TOTAL_BYTES) {
+            throw new IndexOutOfBoundsException("no room for " + 2 * TOTAL_BYTES + " characters at " + offset);
+        }
+        hexEncode(timestamp, TIMESTAMP_BYTES, dst, offset);
+        writePayloadHexTo(dst, offset + 2 * TIMESTAMP_BYTES);
+    }
+
+    /**
+     * Write the {@link #getPayload() payload hex representation} of this {@code Ksuid} into a char array.
+     *
+     * @param dst destination for the 32 characters
+     * @param offset index in dst of the first character
+     * @throws IndexOutOfBoundsException if there is no room for 32 characters at offset
+     */
+    public void writePayloadHexTo(final char[] dst, final int offset) {
+        if (offset < 0 || offset > dst.length - 2 * PAYLOAD_BYTES) {
+            throw new IndexOutOfBoundsException("no room for " + 2 * PAYLOAD_BYTES + " characters at " + offset);
+        }
+        hexEncode(payloadHigh, LONG_SIZE_BYTES, dst, offset);
+        hexEncode(payloadLow, LONG_SIZE_BYTES, dst, offset + 2 * LONG_SIZE_BYTES);
+    }
+
+    /**
+     * Write the 21 {@link #asBytes() bytes} of this {@code Ksuid} to a stream.
+     *
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    public void writeRawTo(final OutputStream out) throws IOException {
+        out.write(asBytes());
+    }
+
+    /**
+     * Write the 16 payload bytes of this {@code Ksuid} to a stream.
+     *
+     * @param out destination
+     * @throws IOException if writing fails
+     */
+    public void writePayloadTo(final OutputStream out) throws IOException {
+        out.write(payloadBytes());
+    }
+
+    /**
+     * Append the {@link #toString() string representation} of this {@code Ksuid}.
+     *
+     * @param sb destination
+     * @return sb
+     */
+    public StringBuilder appendTo(final StringBuilder sb) {
+        final String s = string;
+        if (s != null) {
+            return sb.append(s);
+        }
+        // A scratch array rather than toString(), which would encode into a String and possibly cache it
+        final char[] chars = new char[PAD_TO_LENGTH];
+        encode168(highWord(), middleWord(), lowWord(), chars, 0);
+        return sb.append(chars);
+    }
+
+    /**
+     * Append the {@link #toString() string representation} of this {@code Ksuid}.
+     *
+     * @param appendable destination
+     * @param <A> type of the destination
+     * @return appendable
+     * @throws IOException if appending fails
+     */
+    public <A extends Appendable> A appendTo(final A appendable) throws IOException {
+        if (appendable instanceof StringBuilder) {
+            appendTo((StringBuilder) appendable);
+            return appendable;
+        }
+        final String s = string;
+        if (s != null) {
+            appendable.append(s);
+            return appendable;
+        }
+        final char[] chars = new char[PAD_TO_LENGTH];
+        encode168(highWord(), middleWord(), lowWord(), chars, 0);
+        if (appendable instanceof Writer) {
+            ((Writer) appendable).write(chars);
+        } else {
+            appendable.append(CharBuffer.wrap(chars));
+        }
+        return appendable;
     }
 
     @Override
     public int compareTo(@SuppressWarnings("NullableProblems") final Ksuid40 other) {
-        return COMPARATOR.compare(this, other);
+        return compare(timestamp, payloadHigh, payloadLow, other.timestamp, other.payloadHigh, other.payloadLow);
+    }
+
+    // Package-private access to the id as words, for views and collections storing ids unboxed
+
+    static Ksuid40 fromWords(final long timestamp, final long payloadHigh, final long payloadLow) {
+        return new Ksuid40(timestamp, payloadHigh, payloadLow, null);
+    }
+
+    static Ksuid40 fromPayload(final long timestamp, final byte[] payload, final int offset) {
+        return new Ksuid40(timestamp, readLong(payload, offset, offset + LONG_SIZE_BYTES),
+                           readLong(payload, offset + LONG_SIZE_BYTES, offset + PAYLOAD_BYTES), null);
+    }
+
+    long payloadHigh() {
+        return payloadHigh;
+    }
+
+    long payloadLow() {
+        return payloadLow;
+    }
+
+    static int hash(final long timestamp, final long payloadHigh, final long payloadLow) {
+        // The payload is uniformly random, so folding its words hashes well and is cheaper than caching.
+        // The timestamp is folded in too, for generators supplying non-random payloads.
+        return Long.hashCode(timestamp ^ payloadHigh ^ payloadLow);
+    }
+
+    static int compare(final long timestamp, final long payloadHigh, final long payloadLow,
+                       final long otherTimestamp, final long otherPayloadHigh, final long otherPayloadLow) {
+        final int byTimestamp = Long.compare(timestamp, otherTimestamp);
+        if (byTimestamp != 0) {
+            return byTimestamp;
+        }
+        final int byPayloadHigh = Long.compareUnsigned(payloadHigh, otherPayloadHigh);
+        return byPayloadHigh != 0 ? byPayloadHigh : Long.compareUnsigned(payloadLow, otherPayloadLow);
+    }
+
+    // The 168 bits as three 56-bit words, the form Base62 works in
+
+    static long highWord(final long timestamp, final long payloadHigh) {
+        return ((timestamp << 16) | (payloadHigh >>> 48)) & WORD_MASK;
+    }
+
+    static long middleWord(final long payloadHigh, final long payloadLow) {
+        return ((payloadHigh << 8) | (payloadLow >>> 56)) & WORD_MASK;
+    }
+
+    static long lowWord(final long payloadLow) {
+        return payloadLow & WORD_MASK;
+    }
+
+    private long highWord() {
+        return highWord(timestamp, payloadHigh);
+    }
+
+    private long middleWord() {
+        return middleWord(payloadHigh, payloadLow);
+    }
+
+    private long lowWord() {
+        return lowWord(payloadLow);
+    }
+
+    private byte[] payloadBytes() {
+        final byte[] bytes = new byte[PAYLOAD_BYTES];
+        writeLong(payloadHigh, bytes, 0, LONG_SIZE_BYTES);
+        writeLong(payloadLow, bytes, LONG_SIZE_BYTES, PAYLOAD_BYTES);
+        return bytes;
+    }
+
+    private void writeObject(final ObjectOutputStream out) throws IOException {
+        final ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("timestamp", timestamp);
+        fields.put("payload", payloadBytes());
+        fields.put("ksuidBytes", asBytes());
+        out.writeFields();
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        final ObjectInputStream.GetField fields = in.readFields();
+        final byte[] payload = (byte[]) fields.get("payload", null);
+        if (payload == null) {
+            throw new InvalidObjectException("payload is missing");
+        }
+        if (payload.length != PAYLOAD_BYTES) {
+            throw new InvalidObjectException("payload is not expected length of " + PAYLOAD_BYTES + " bytes");
+        }
+        // Deserialization may set final fields before the instance is published, as the JDK's own classes do
+        try {
+            SerialFields.TIMESTAMP.setLong(this, fields.get("timestamp", 0L));
+            SerialFields.PAYLOAD_HIGH.setLong(this, readLong(payload, 0, LONG_SIZE_BYTES));
+            SerialFields.PAYLOAD_LOW.setLong(this, readLong(payload, LONG_SIZE_BYTES, PAYLOAD_BYTES));
+        } catch (final IllegalAccessException e) {
+            throw (InvalidObjectException) new InvalidObjectException("cannot restore fields").initCause(e);
+        }
+    }
+
+    /**
+     * The id fields, looked up on first deserialization only.
+     */
+    private static final class SerialFields {
+        static final Field TIMESTAMP = field("timestamp");
+        static final Field PAYLOAD_HIGH = field("payloadHigh");
+        static final Field PAYLOAD_LOW = field("payloadLow");
+
+        private static Field field(final String name) {
+            try {
+                final Field field = Ksuid40.class.getDeclaredField(name);
+                field.setAccessible(true);
+                return field;
+            } catch (final NoSuchFieldException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static void checkDecoded(final long highWord) {
+        if (highWord < MINIMUM_HIGH_WORD) {
+            throw new IllegalArgumentException("ksuid is not expected length of " + TOTAL_BYTES + " ( 20-21 ) bytes");
+        }
+    }
+
+    private static Ksuid40 readKsuid(final byte[] bytes, final int offset, final String string) {
+        return new Ksuid40(readLong(bytes, offset, offset + TIMESTAMP_BYTES),
+                           readLong(bytes, offset + TIMESTAMP_BYTES, offset + TIMESTAMP_BYTES + LONG_SIZE_BYTES),
+                           readLong(bytes, offset + TIMESTAMP_BYTES + LONG_SIZE_BYTES, offset + TOTAL_BYTES),
+                           string);
+    }
+
+    /**
+     * Read big-endian bytes {@code from} (inclusive) {@code to} (exclusive) as an unsigned value.
+     */
+    private static long readLong(final byte[] bytes, final int from, final int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+
+    /**
+     * Write the low-order bytes of a value big-endian {@code from} (inclusive) {@code to} (exclusive).
+     */
+    private static void writeLong(final long value, final byte[] bytes, final int from, final int to) {
+        for (int i = to - 1, shift = 0; i >= from; i--, shift += 8) {
+            bytes[i] = (byte) (value >>> shift);
+        }
     }
 
 
@@ -267,6 +708,7 @@ public class Ksuid40 implements Serializable, Comparable<Ksuid40> {
         private long timestamp;
         private byte[] payload;
         private byte[] ksuidBytes;
+        private String ksuidString;
 
         private Builder() {
         }
@@ -307,6 +749,7 @@ public class Ksuid40 implements Serializable, Comparable<Ksuid40> {
          */
         public Builder withKsuidBytes(final byte[] ksuidBytes) {
             this.ksuidBytes = ksuidBytes;
+            this.ksuidString = null;
             return this;
         }
 
@@ -319,7 +762,11 @@ public class Ksuid40 implements Serializable, Comparable<Ksuid40> {
          * @return this builder
          */
         public Builder withKsuidString(final String ksuidString) {
-            this.ksuidBytes = base62Decode(ksuidString);
+            final byte[] bytes = new byte[TOTAL_BYTES];
+            checkDecoded(decode168(ksuidString, 0, ksuidString.length(), bytes, 0));
+            this.ksuidBytes = bytes;
+            // Only the fixed-width form is canonical, padded or short strings are re-encoded on demand
+            this.ksuidString = ksuidString.length() == PAD_TO_LENGTH ? ksuidString : null;
             return this;
         }
 
@@ -0,0 +1,396 @@
+package com.github.ksuid40;
+
+import java.util.Arrays;
+import java.util.stream.Collector;
+
+import static com.github.ksuid40.Base62.encode168;
+import static com.github.ksuid40.Ksuid40.highWord;
+import static com.github.ksuid40.Ksuid40.lowWord;
+import static com.github.ksuid40.Ksuid40.middleWord;
+
+/**
+ * A growable array of {@code Ksuid}s stored as primitive words rather than objects.
+ * <p>
+ * Each id takes 24 bytes in a single {@code long[]}, so hundreds of millions of ids can be held, sorted and
+ * searched without an object per id. Elements are read either as a {@link Ksuid40} with {@link #get(int)}
+ * or, without allocating, component by component with {@link #getTimestamp(int)}, {@link #getPayloadHigh(int)}
+ * and {@link #getPayloadLow(int)}.
+ * <p>
+ * Arrays are not thread-safe; use {@link #collector()} to build one from a parallel stream.
+ */
+public final class Ksuid40Array {
+    private static final int WORDS = 3;
+    private static final int DEFAULT_CAPACITY = 16;
+    // Largest array the JVMs in use allocate reliably, as in java.util.ArrayList
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - 8) / WORDS;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    // Below this the passes of a radix sort cost more than comparing
+    private static final int RADIX_SORT_THRESHOLD = 1024;
+
+    private long[] words;
+    private int size;
+
+    /**
+     * Create an empty array.
+     */
+    public Ksuid40Array() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create an empty array with room for a number of ids before growing.
+     *
+     * @param initialCapacity number of ids
+     * @throws IllegalArgumentException if initialCapacity is negative or too large
+     */
+    public Ksuid40Array(final int initialCapacity) {
+        if (initialCapacity < 0 || initialCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("initial capacity is not between 0 and " + MAX_CAPACITY + ": " + initialCapacity);
+        }
+        words = new long[initialCapacity * WORDS];
+    }
+
+    /**
+     * Create an array holding {@code Ksuid}s in order.
+     *
+     * @param ksuid40s ids to hold
+     * @return array
+     */
+    public static Ksuid40Array fromArray(final Ksuid40... ksuid40s) {
+        final Ksuid40Array array = new Ksuid40Array(ksuid40s.length);
+        for (final Ksuid40 ksuid40 : ksuid40s) {
+            array.add(ksuid40);
+        }
+        return array;
+    }
+
+    /**
+     * A collector accumulating {@code Ksuid}s into an array in encounter order, for sequential and parallel streams.
+     *
+     * @return collector
+     */
+    public static Collector<Ksuid40, ?, Ksuid40Array> collector() {
+        return Collector.of(Ksuid40Array::new, Ksuid40Array::add, Ksuid40Array::addAll);
+    }
+
+    /**
+     * Get the number of ids held.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check whether no ids are held.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Append a {@code Ksuid}.
+     *
+     * @param ksuid40 id to append
+     */
+    public void add(final Ksuid40 ksuid40) {
+        add(ksuid40.getTimestamp(), ksuid40.payloadHigh(), ksuid40.payloadLow());
+    }
+
+    /**
+     * Append the {@code Ksuid} a view is positioned over.
+     *
+     * @param view view of the id to append
+     */
+    public void add(final Ksuid40View view) {
+        add(view.getTimestamp(), view.getPayloadHigh(), view.getPayloadLow());
+    }
+
+    /**
+     * Append all ids of another array.
+     *
+     * @param other ids to append
+     * @return this array
+     */
+    public Ksuid40Array addAll(final Ksuid40Array other) {
+        final int otherSize = other.size;
+        ensureCapacity(size + otherSize);
+        System.arraycopy(other.words, 0, words, size * WORDS, otherSize * WORDS);
+        size += otherSize;
+        return this;
+    }
+
+    /**
+     * Get the {@code Ksuid} at an index.
+     *
+     * @param index index of the id
+     * @return id
+     * @throws IndexOutOfBoundsException if index is not less than size
+     */
+    public Ksuid40 get(final int index) {
+        final int i = wordIndex(index);
+        return Ksuid40.fromWords(words[i], words[i + 1], words[i + 2]);
+    }
+
+    /**
+     * Get the timestamp component of the {@code Ksuid} at an index.
+     *
+     * @param index index of the id
+     * @return timestamp component
+     * @throws IndexOutOfBoundsException if index is not less than size
+     */
+    public long getTimestamp(final int index) {
+        return words[wordIndex(index)];
+    }
+
+    /**
+     * Get the first 8 bytes of the payload component of the {@code Ksuid} at an index as a big-endian word.
+     *
+     * @param index index of the id
+     * @return high payload word
+     * @throws IndexOutOfBoundsException if index is not less than size
+     */
+    public long getPayloadHigh(final int index) {
+        return words[wordIndex(index) + 1];
+    }
+
+    /**
+     * Get the last 8 bytes of the payload component of the {@code Ksuid} at an index as a big-endian word.
+     *
+     * @param index index of the id
+     * @return low payload word
+     * @throws IndexOutOfBoundsException if index is not less than size
+     */
+    public long getPayloadLow(final int index) {
+        return words[wordIndex(index) + 2];
+    }
+
+    /**
+     * Write the {@link Ksuid40#toString() string representation} of the {@code Ksuid} at an index into a char array.
+     *
+     * @param index index of the id
+     * @param dst destination for the 29 characters
+     * @param offset index in dst of the first character
+     * @throws IndexOutOfBoundsException if index is not less than size or there is no room for 29 characters at offset
+     */
+    public void encodeTo(final int index, final char[] dst, final int offset) {
+        final int i = wordIndex(index);
+        encode168(highWord(words[i], words[i + 1]), middleWord(words[i + 1], words[i + 2]), lowWord(words[i + 2]),
+                  dst, offset);
+    }
+
+    /**
+     * Remove all ids, keeping the capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Sort the ids in place into {@link Ksuid40#compareTo(Ksuid40) natural order}.
+     * <p>
+     * Large arrays are radix sorted, taking time linear in their size and one more array of words.
+     * Arrays already in order, or in timestamp order as ids are generated, are sorted in a single pass or close to it.
+     */
+    public void sort() {
+        if (size < RADIX_SORT_THRESHOLD) {
+            sort(0, size - 1);
+        } else {
+            Ksuid40RadixSort.sort(words, size, null);
+        }
+    }
+
+    /**
+     * Sort the ids in place into natural order, splitting large arrays by time to sort on the common fork-join pool.
+     */
+    public void parallelSort() {
+        if (size < RADIX_SORT_THRESHOLD) {
+            sort(0, size - 1);
+        } else {
+            Ksuid40RadixSort.parallelSort(words, size, null);
+        }
+    }
+
+    /**
+     * Sort {@code Ksuid}s into natural order as {@link Arrays#sort(Object[])} does, but by radix sorting their
+     * packed ids.
+     *
+     * @param ksuid40s ids to sort
+     */
+    public static void sort(final Ksuid40[] ksuid40s) {
+        Ksuid40RadixSort.sort(ksuid40s, false);
+    }
+
+    /**
+     * Sort {@code Ksuid}s into natural order as {@link Arrays#parallelSort(Comparable[])} does, but by radix sorting
+     * their packed ids.
+     *
+     * @param ksuid40s ids to sort
+     */
+    public static void parallelSort(final Ksuid40[] ksuid40s) {
+        Ksuid40RadixSort.sort(ksuid40s, true);
+    }
+
+    /**
+     * Search a sorted array for a {@code Ksuid}, as {@link Arrays#binarySearch(Object[], Object)} does.
+     *
+     * @param key id to search for
+     * @return index of the id, otherwise (-(insertion point) - 1)
+     */
+    public int binarySearch(final Ksuid40 key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int i = mid * WORDS;
+            final int cmp = Ksuid40.compare(words[i], words[i + 1], words[i + 2],
+                                            key.getTimestamp(), key.payloadHigh(), key.payloadLow());
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Search a sorted array for the first {@code Ksuid} with a timestamp, e.g. to find where a time range starts.
+     *
+     * @param timestamp timestamp to search for
+     * @return index of the first id with the timestamp, otherwise (-(insertion point) - 1)
+     */
+    public int binarySearchTimestamp(final long timestamp) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (words[mid * WORDS] < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < size && words[low * WORDS] == timestamp ? low : -(low + 1);
+    }
+
+    /**
+     * Copy the ids into a new array of {@code Ksuid}s.
+     *
+     * @return ids in order
+     */
+    public Ksuid40[] toArray() {
+        final Ksuid40[] ksuid40s = new Ksuid40[size];
+        for (int index = 0, i = 0; index < size; index++, i += WORDS) {
+            ksuid40s[index] = Ksuid40.fromWords(words[i], words[i + 1], words[i + 2]);
+        }
+        return ksuid40s;
+    }
+
+    void add(final long timestamp, final long payloadHigh, final long payloadLow) {
+        ensureCapacity(size + 1);
+        final int i = size * WORDS;
+        words[i] = timestamp;
+        words[i + 1] = payloadHigh;
+        words[i + 2] = payloadLow;
+        size++;
+    }
+
+    /**
+     * Append ids from word triples, as held by {@link Ksuid40SortedIndex}.
+     */
+    void addWords(final long[] src, final int srcOffset, final int count) {
+        ensureCapacity(size + count);
+        System.arraycopy(src, srcOffset, words, size * WORDS, count * WORDS);
+        size += count;
+    }
+
+    private void ensureCapacity(final int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new IllegalStateException("array cannot hold more than " + MAX_CAPACITY + " ids");
+        }
+        final int capacity = words.length / WORDS;
+        if (minCapacity > capacity) {
+            final int grown = Math.min(MAX_CAPACITY, Math.max(DEFAULT_CAPACITY, capacity + (capacity >> 1)));
+            words = Arrays.copyOf(words, Math.max(grown, minCapacity) * WORDS);
+        }
+    }
+
+    private int wordIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " is outside of size " + size);
+        }
+        return index * WORDS;
+    }
+
+    /**
+     * Quicksort {@code from} (inclusive) {@code to} (inclusive), recursing into the smaller partition only.
+     * Hoare partitioning keeps runs of equal ids balanced.
+     */
+    private void sort(int from, int to) {
+        while (to - from >= INSERTION_SORT_THRESHOLD) {
+            final int p = medianOfThree(from, (from + to) >>> 1, to) * WORDS;
+            final long pivotTimestamp = words[p];
+            final long pivotPayloadHigh = words[p + 1];
+            final long pivotPayloadLow = words[p + 2];
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (compare(i, pivotTimestamp, pivotPayloadHigh, pivotPayloadLow) < 0) {
+                    i++;
+                }
+                while (compare(j, pivotTimestamp, pivotPayloadHigh, pivotPayloadLow) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (j - from < to - i) {
+                sort(from, j);
+                from = i;
+            } else {
+                sort(i, to);
+                to = j;
+            }
+        }
+        for (int index = from + 1; index <= to; index++) {
+            for (int j = index; j > from && compare(j - 1, j) > 0; j--) {
+                swap(j - 1, j);
+            }
+        }
+    }
+
+    private int medianOfThree(final int a, final int b, final int c) {
+        if (compare(a, b) < 0) {
+            return compare(b, c) < 0 ? b : compare(a, c) < 0 ? c : a;
+        }
+        return compare(a, c) < 0 ? a : compare(b, c) < 0 ? c : b;
+    }
+
+    private int compare(final int a, final int b) {
+        final int i = a * WORDS;
+        final int j = b * WORDS;
+        return Ksuid40.compare(words[i], words[i + 1], words[i + 2], words[j], words[j + 1], words[j + 2]);
+    }
+
+    private int compare(final int a, final long timestamp, final long payloadHigh, final long payloadLow) {
+        final int i = a * WORDS;
+        return Ksuid40.compare(words[i], words[i + 1], words[i + 2], timestamp, payloadHigh, payloadLow);
+    }
+
+    private void swap(final int a, final int b) {
+        final int i = a * WORDS;
+        final int j = b * WORDS;
+        for (int k = 0; k < WORDS; k++) {
+            final long word = words[i + k];
+            words[i + k] = words[j + k];
+            words[j + k] = word;
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package com.github.ksuid40;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A thread-safe Bloom filter of the {@code Ksuid}s seen within a sliding time window, partitioned by the ids' own
+ * timestamps, e.g. to drop duplicates among more ids than fit in an exact {@link Ksuid40WindowCache}.
+ * <p>
+ * Each bucket of the window has its own filter sized for an expected number of ids and false-positive rate.
+ * An id is only inserted into and looked up in the bucket covering its timestamp, and a bucket's filter is cleared
+ * whole when it leaves the window. Ids older than the window, or more than one bucket ahead of the clock,
+ * are rejected.
+ * <p>
+ * The bit positions are taken from the payload words by double hashing without a hash function, relying on
+ * the payload being uniformly random as from {@link Ksuid40Generator}. Insertions set bits with compare-and-set,
+ * so they proceed concurrently.
+ */
+public final class Ksuid40BloomFilter {
+    private static final int SNAPSHOT_MAGIC = 0x4B42_4C4D;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int SNAPSHOT_HEADER_BYTES = 2 * Integer.BYTES + Long.BYTES + 3 * Integer.BYTES;
+    private static final int SNAPSHOT_BUFFER_BYTES = 1 << 16;
+    private static final int MIN_LOG2_BITS = 6;
+    // 2^36 bits are 2^30 words per bucket, the largest power of two an AtomicLongArray can hold
+    private static final int MAX_LOG2_BITS = 36;
+
+    private final Clock clock;
+    private final long bucketSeconds;
+    private final int windowBuckets;
+    private final int log2Bits;
+    private final int hashCount;
+
+    private final AtomicLongArray[] filters;
+    private final long[] bucketIds;
+    private final StampedLock[] locks;
+
+    /**
+     * Create a filter.
+     *
+     * @param window how long ids are remembered, counted from their timestamps
+     * @param bucketWidth time span of the ids in a bucket, in whole seconds
+     * @param expectedInsertions number of ids expected per bucket
+     * @param falsePositiveRate desired probability of an absent id being reported as present, for a full bucket
+     * @param clock clock the window slides with
+     * @throws IllegalArgumentException if bucketWidth is not a positive number of seconds, window is shorter than
+     *                                  bucketWidth, expectedInsertions is not positive, falsePositiveRate is not
+     *                                  between 0 and 1, or a bucket's filter would be too large
+     */
+    public Ksuid40BloomFilter(final Duration window, final Duration bucketWidth, final long expectedInsertions,
+                              final double falsePositiveRate, final Clock clock) {
+        this(clock, bucketSeconds(bucketWidth), windowBuckets(window, bucketWidth),
+             log2Bits(expectedInsertions, falsePositiveRate), expectedInsertions);
+    }
+
+    // Takes the expected insertions rather than the hash count, so the size is only computed once
+    private Ksuid40BloomFilter(final Clock clock, final long bucketSeconds, final int windowBuckets, final int log2Bits,
+                               final long expectedInsertions) {
+        this(clock, bucketSeconds, windowBuckets, log2Bits, hashCount(log2Bits, expectedInsertions));
+    }
+
+    private Ksuid40BloomFilter(final Clock clock, final long bucketSeconds, final int windowBuckets, final int log2Bits,
+                               final int hashCount) {
+        this.clock = clock;
+        this.bucketSeconds = bucketSeconds;
+        this.windowBuckets = windowBuckets;
+        this.log2Bits = log2Bits;
+        this.hashCount = hashCount;
+        final int ring = windowBuckets + 1;
+        filters = new AtomicLongArray[ring];
+        bucketIds = new long[ring];
+        locks = new StampedLock[ring];
+        for (int i = 0; i < ring; i++) {
+            filters[i] = new AtomicLongArray(1 << (log2Bits - 6));
+            bucketIds[i] = Long.MIN_VALUE;
+            locks[i] = new StampedLock();
+        }
+    }
+
+    /**
+     * Get the number of bit positions per id.
+     *
+     * @return number of hash functions
+     */
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Get the number of bits of each bucket's filter.
+     *
+     * @return bits per bucket
+     */
+    public long bitsPerBucket() {
+        return 1L << log2Bits;
+    }
+
+    /**
+     * Check whether a {@code Ksuid} is outside of the window, in which case it is neither inserted nor found.
+     *
+     * @param ksuid40 id to check
+     * @return true if the id is too old, or too far ahead of the clock
+     */
+    public boolean isExpired(final Ksuid40 ksuid40) {
+        return bucketOf(ksuid40.getTimestamp(), currentBucket()) < 0;
+    }
+
+    /**
+     * Insert a {@code Ksuid} if it is within the window.
+     * <p>
+     * Concurrent insertions of the same id may each return true, as each may set some of its bits first.
+     *
+     * @param ksuid40 id to insert
+     * @return true if the id was certainly absent before, false if it might have been present or is
+     *         {@link #isExpired(Ksuid40) expired}
+     */
+    public boolean put(final Ksuid40 ksuid40) {
+        final long bucket = bucketOf(ksuid40.getTimestamp(), currentBucket());
+        if (bucket < 0) {
+            return false;
+        }
+        final int slot = (int) (bucket % filters.length);
+        long stamp = locks[slot].readLock();
+        try {
+            if (bucketIds[slot] != bucket) {
+                final long writeStamp = locks[slot].tryConvertToWriteLock(stamp);
+                if (writeStamp != 0) {
+                    stamp = writeStamp;
+                } else {
+                    locks[slot].unlockRead(stamp);
+                    stamp = locks[slot].writeLock();
+                }
+                if (!claim(slot, bucket)) {
+                    return false;
+                }
+                stamp = locks[slot].tryConvertToReadLock(stamp);
+            }
+            // Shared lock: insertions set bits concurrently, rotation of the bucket waits for them
+            return setBits(filters[slot], ksuid40.payloadHigh(), ksuid40.payloadLow());
+        } finally {
+            locks[slot].unlock(stamp);
+        }
+    }
+
+    /**
+     * Check whether a {@code Ksuid} might have been inserted within the window.
+     *
+     * @param ksuid40 id to look for
+     * @return true if the id might be present, false if it is certainly absent or {@link #isExpired(Ksuid40) expired}
+     */
+    public boolean mightContain(final Ksuid40 ksuid40) {
+        final long bucket = bucketOf(ksuid40.getTimestamp(), currentBucket());
+        if (bucket < 0) {
+            return false;
+        }
+        final int slot = (int) (bucket % filters.length);
+        final long stamp = locks[slot].readLock();
+        try {
+            return bucketIds[slot] == bucket && testBits(filters[slot], ksuid40.payloadHigh(), ksuid40.payloadLow());
+        } finally {
+            locks[slot].unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Write the filter's state to a file, replacing it, for {@link #readFrom(Path, Clock)} after a restart.
+     * Concurrent insertions may or may not be included.
+     * <p>
+     * The state is written to a temporary file in the same directory that is then moved over the file atomically,
+     * so a crash while writing leaves the previous state in place.
+     *
+     * @param file destination
+     * @throws IOException if writing fails
+     */
+    public void writeTo(final Path file) throws IOException {
+        final Path target = file.toAbsolutePath();
+        final Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            write(temp);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void write(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_BUFFER_BYTES);
+            buffer.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION)
+                  .putLong(bucketSeconds).putInt(windowBuckets).putInt(log2Bits).putInt(hashCount);
+            for (int slot = 0; slot < filters.length; slot++) {
+                final long stamp = locks[slot].readLock();
+                try {
+                    buffer.putLong(bucketIds[slot]);
+                    final AtomicLongArray filter = filters[slot];
+                    for (int i = 0; i < filter.length(); i++) {
+                        if (buffer.remaining() < Long.BYTES) {
+                            drain(channel, buffer);
+                        }
+                        buffer.putLong(filter.get(i));
+                    }
+                } finally {
+                    locks[slot].unlockRead(stamp);
+                }
+                if (buffer.remaining() < Long.BYTES) {
+                    drain(channel, buffer);
+                }
+            }
+            drain(channel, buffer);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Read a filter's state written by {@link #writeTo(Path)}. Buckets that left the window meanwhile are ignored.
+     *
+     * @param file source
+     * @param clock clock the window slides with
+     * @return filter
+     * @throws IOException if reading fails or the file does not hold a filter's state
+     */
+    public static Ksuid40BloomFilter readFrom(final Path file, final Clock clock) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_BUFFER_BYTES);
+            buffer.limit(0);
+            fill(channel, buffer, SNAPSHOT_HEADER_BYTES);
+            if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_VERSION) {
+                throw new IOException("not a filter snapshot: " + file);
+            }
+            final long bucketSeconds = buffer.getLong();
+            final int windowBuckets = buffer.getInt();
+            final int log2Bits = buffer.getInt();
+            final int hashCount = buffer.getInt();
+            if (bucketSeconds < 1 || windowBuckets < 1 || windowBuckets == Integer.MAX_VALUE
+                    || log2Bits < MIN_LOG2_BITS || log2Bits > MAX_LOG2_BITS || hashCount < 1) {
+                throw new IOException("corrupt filter snapshot: " + file);
+            }
+            // Checked before allocating, so a corrupt header cannot claim more memory than the file holds
+            if (channel.size() != snapshotBytes(windowBuckets, log2Bits)) {
+                throw new IOException("filter snapshot does not match its header: " + file);
+            }
+            final Ksuid40BloomFilter filter = new Ksuid40BloomFilter(clock, bucketSeconds, windowBuckets, log2Bits, hashCount);
+            for (int slot = 0; slot < filter.filters.length; slot++) {
+                fill(channel, buffer, Long.BYTES);
+                filter.bucketIds[slot] = buffer.getLong();
+                final AtomicLongArray words = filter.filters[slot];
+                for (int i = 0; i < words.length(); i++) {
+                    fill(channel, buffer, Long.BYTES);
+                    words.set(i, buffer.getLong());
+                }
+            }
+            return filter;
+        }
+    }
+
+    /**
+     * Length of a snapshot, or -1 if it would exceed a long.
+     */
+    private static long snapshotBytes(final int windowBuckets, final int log2Bits) {
+        try {
+            final long bucketBytes = Long.BYTES + (1L << (log2Bits - 3));
+            return Math.addExact(SNAPSHOT_HEADER_BYTES, Math.multiplyExact(windowBuckets + 1L, bucketBytes));
+        } catch (final ArithmeticException e) {
+            return -1;
+        }
+    }
+
+    private long currentBucket() {
+        return Math.floorDiv(clock.millis(), 1000) / bucketSeconds;
+    }
+
+    private long bucketOf(final long timestamp, final long now) {
+        final long bucket = timestamp / bucketSeconds;
+        return bucket < now - windowBuckets + 1 || bucket > now + 1 ? -1 : bucket;
+    }
+
+    /**
+     * Prepare, under the slot's write lock, the slot to hold a bucket, clearing the earlier bucket it holds.
+     *
+     * @return false if the slot already holds a later bucket, as the window slid meanwhile
+     */
+    private boolean claim(final int slot, final long bucket) {
+        final long held = bucketIds[slot];
+        if (held > bucket) {
+            return false;
+        }
+        if (held != bucket) {
+            final AtomicLongArray filter = filters[slot];
+            for (int i = 0; i < filter.length(); i++) {
+                filter.lazySet(i, 0);
+            }
+            bucketIds[slot] = bucket;
+        }
+        return true;
+    }
+
+    private boolean setBits(final AtomicLongArray filter, final long payloadHigh, final long payloadLow) {
+        boolean changed = false;
+        // Odd, so the step is never zero. Positions are the high bits of the running sum and may still collide,
+        // in which case an id sets fewer bits, as in any double-hashed Bloom filter
+        final long step = payloadLow | 1;
+        long position = payloadHigh;
+        for (int i = 0; i < hashCount; i++, position += step) {
+            final long bit = position >>> (Long.SIZE - log2Bits);
+            final int word = (int) (bit >>> 6);
+            final long mask = 1L << bit;
+            long current;
+            while (((current = filter.get(word)) & mask) == 0) {
+                if (filter.compareAndSet(word, current, current | mask)) {
+                    changed = true;
+                    break;
+                }
+            }
+        }
+        return changed;
+    }
+
+    private boolean testBits(final AtomicLongArray filter, final long payloadHigh, final long payloadLow) {
+        final long step = payloadLow | 1;
+        long position = payloadHigh;
+        for (int i = 0; i < hashCount; i++, position += step) {
+            final long bit = position >>> (Long.SIZE - log2Bits);
+            if ((filter.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void drain(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void fill(final FileChannel channel, final ByteBuffer buffer, final int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("truncated filter snapshot");
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Number of bits for the false-positive rate, {@code -n ln p / (ln 2)^2}, rounded up to a power of two
+     * so positions are taken from the high bits of a word.
+     */
+    private static int log2Bits(final long expectedInsertions, final double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expected insertions is not positive: " + expectedInsertions);
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("false positive rate is not between 0 and 1: " + falsePositiveRate);
+        }
+        final double bits = -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        final int log2Bits = Math.max(MIN_LOG2_BITS, (int) Math.ceil(Math.log(bits) / Math.log(2)));
+        if (log2Bits > MAX_LOG2_BITS) {
+            throw new IllegalArgumentException("filter of 2^" + log2Bits + " bits per bucket is too large");
+        }
+        return log2Bits;
+    }
+
+    // The optimal number of positions for the actual number of bits, (m / n) ln 2
+    private static int hashCount(final int log2Bits, final long expectedInsertions) {
+        return (int) Math.max(1, Math.round((double) (1L << log2Bits) / expectedInsertions * Math.log(2)));
+    }
+
+    private static long bucketSeconds(final Duration bucketWidth) {
+        if (bucketWidth.getSeconds() < 1 || bucketWidth.getNano() != 0) {
+            throw new IllegalArgumentException("bucket width is not a positive number of seconds: " + bucketWidth);
+        }
+        return bucketWidth.getSeconds();
+    }
+
+    private static int windowBuckets(final Duration window, final Duration bucketWidth) {
+        if (window.compareTo(bucketWidth) < 0) {
+            throw new IllegalArgumentException("window is shorter than bucket width: " + window);
+        }
+        final long bucketSeconds = bucketWidth.getSeconds();
+        // One more bucket than the window spans, as the current bucket is only partly elapsed
+        return Math.toIntExact((window.getSeconds() + bucketSeconds - 1) / bucketSeconds + 1);
+    }
+}
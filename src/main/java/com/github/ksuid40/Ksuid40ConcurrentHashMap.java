@@ -0,0 +1,137 @@
+package com.github.ksuid40;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A thread-safe map keyed by {@code Ksuid}s stored inline in lock-striped primitive segments,
+ * without an object per entry.
+ * <p>
+ * Each segment is a {@link Ksuid40HashMap} guarded by its own lock. Null keys are not permitted, null values are.
+ *
+ * @param <V> type of the values
+ */
+public final class Ksuid40ConcurrentHashMap<V> extends Ksuid40StripedTable<Ksuid40HashMap<V>> {
+
+    /**
+     * Create an empty map striped for the available processors.
+     */
+    public Ksuid40ConcurrentHashMap() {
+        this(0, defaultConcurrencyLevel());
+    }
+
+    /**
+     * Create an empty map.
+     *
+     * @param expectedSize number of entries to hold before segments grow
+     * @param concurrencyLevel number of segments, rounded up to a power of two
+     * @throws IllegalArgumentException if expectedSize is negative or concurrencyLevel is not positive
+     */
+    @SuppressWarnings("unchecked")
+    public Ksuid40ConcurrentHashMap(final int expectedSize, final int concurrencyLevel) {
+        super(expectedSize, concurrencyLevel, Ksuid40HashMap[]::new, Ksuid40HashMap::new);
+    }
+
+    /**
+     * Get the value mapped to a {@code Ksuid}.
+     *
+     * @param key id to look for
+     * @return value, or null if the id is absent
+     */
+    public V get(final Ksuid40 key) {
+        final int segment = segmentFor(key.getTimestamp(), key.payloadHigh(), key.payloadLow());
+        final long stamp = locks[segment].readLock();
+        try {
+            return segments[segment].get(key);
+        } finally {
+            locks[segment].unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Check whether a {@code Ksuid} is mapped.
+     *
+     * @param key id to look for
+     * @return true if the id is present
+     */
+    public boolean containsKey(final Ksuid40 key) {
+        final int segment = segmentFor(key.getTimestamp(), key.payloadHigh(), key.payloadLow());
+        final long stamp = locks[segment].readLock();
+        try {
+            return segments[segment].containsKey(key);
+        } finally {
+            locks[segment].unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Map a {@code Ksuid} to a value, replacing any previous value.
+     *
+     * @param key id to map
+     * @param value value to map the id to
+     * @return the previous value, or null if the id was absent
+     * @throws IllegalStateException if the id's segment is full
+     */
+    public V put(final Ksuid40 key, final V value) {
+        final int segment = segmentFor(key.getTimestamp(), key.payloadHigh(), key.payloadLow());
+        final long stamp = locks[segment].writeLock();
+        try {
+            return segments[segment].put(key, value);
+        } finally {
+            locks[segment].unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Get the value mapped to a {@code Ksuid}, mapping it to a computed value first if it is absent or mapped to
+     * null. Nothing is mapped if the function returns null.
+     * The function runs while the id's segment is locked and must not update this map.
+     *
+     * @param key id to look for
+     * @param mappingFunction function computing a value for an absent id
+     * @return the present or computed value, or null if the computed value is null
+     * @throws IllegalStateException if the id's segment is full
+     */
+    public V computeIfAbsent(final Ksuid40 key, final Function<? super Ksuid40, ? extends V> mappingFunction) {
+        final int segment = segmentFor(key.getTimestamp(), key.payloadHigh(), key.payloadLow());
+        final long stamp = locks[segment].writeLock();
+        try {
+            return segments[segment].computeIfAbsent(key, mappingFunction);
+        } finally {
+            locks[segment].unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove the mapping of a {@code Ksuid} if it is present.
+     *
+     * @param key id to remove
+     * @return the previous value, or null if the id was absent
+     */
+    public V remove(final Ksuid40 key) {
+        final int segment = segmentFor(key.getTimestamp(), key.payloadHigh(), key.payloadLow());
+        final long stamp = locks[segment].writeLock();
+        try {
+            return segments[segment].remove(key);
+        } finally {
+            locks[segment].unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Perform an action for each entry in the map, in no particular order, one segment at a time.
+     * The action runs while the segment's lock is held and must not update this map.
+     *
+     * @param action action to perform
+     */
+    public void forEach(final BiConsumer<? super Ksuid40, ? super V> action) {
+        for (int i = 0; i < segments.length; i++) {
+            final long stamp = locks[i].readLock();
+            try {
+                segments[i].forEach(action);
+            } finally {
+                locks[i].unlockRead(stamp);
+            }
+        }
+    }
+}
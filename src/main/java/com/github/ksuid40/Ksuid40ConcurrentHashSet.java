@@ -0,0 +1,96 @@
+package com.github.ksuid40;
+
+import java.util.function.Consumer;
+
+/**
+ * A thread-safe set of {@code Ksuid}s stored inline in lock-striped primitive segments,
+ * without an object per entry, e.g. to check for already seen ids from many ingestion threads.
+ * <p>
+ * Each segment is a {@link Ksuid40HashSet} guarded by its own lock. Null is not permitted.
+ */
+public final class Ksuid40ConcurrentHashSet extends Ksuid40StripedTable<Ksuid40HashSet> {
+
+    /**
+     * Create an empty set striped for the available processors.
+     */
+    public Ksuid40ConcurrentHashSet() {
+        this(0, defaultConcurrencyLevel());
+    }
+
+    /**
+     * Create an empty set.
+     *
+     * @param expectedSize number of ids to hold before segments grow
+     * @param concurrencyLevel number of segments, rounded up to a power of two
+     * @throws IllegalArgumentException if expectedSize is negative or concurrencyLevel is not positive
+     */
+    public Ksuid40ConcurrentHashSet(final int expectedSize, final int concurrencyLevel) {
+        super(expectedSize, concurrencyLevel, Ksuid40HashSet[]::new, Ksuid40HashSet::new);
+    }
+
+    /**
+     * Add a {@code Ksuid} if it is absent.
+     *
+     * @param ksuid40 id to add
+     * @return true if the id was absent
+     * @throws IllegalStateException if the id's segment is full
+     */
+    public boolean add(final Ksuid40 ksuid40) {
+        final int segment = segmentFor(ksuid40.getTimestamp(), ksuid40.payloadHigh(), ksuid40.payloadLow());
+        final long stamp = locks[segment].writeLock();
+        try {
+            return segments[segment].add(ksuid40);
+        } finally {
+            locks[segment].unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Check whether a {@code Ksuid} is present.
+     *
+     * @param ksuid40 id to look for
+     * @return true if the id is present
+     */
+    public boolean contains(final Ksuid40 ksuid40) {
+        final int segment = segmentFor(ksuid40.getTimestamp(), ksuid40.payloadHigh(), ksuid40.payloadLow());
+        final long stamp = locks[segment].readLock();
+        try {
+            return segments[segment].contains(ksuid40);
+        } finally {
+            locks[segment].unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Remove a {@code Ksuid} if it is present.
+     *
+     * @param ksuid40 id to remove
+     * @return true if the id was present
+     */
+    public boolean remove(final Ksuid40 ksuid40) {
+        final int segment = segmentFor(ksuid40.getTimestamp(), ksuid40.payloadHigh(), ksuid40.payloadLow());
+        final long stamp = locks[segment].writeLock();
+        try {
+            return segments[segment].remove(ksuid40);
+        } finally {
+            locks[segment].unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Perform an action for each {@code Ksuid} in the set, in no particular order, one segment at a time.
+     * The action runs while the segment's lock is held and must not update this set.
+     *
+     * @param action action to perform
+     */
+    public void forEach(final Consumer<? super Ksuid40> action) {
+        for (int i = 0; i < segments.length; i++) {
+            final long stamp = locks[i].readLock();
+            try {
+                segments[i].forEach(action);
+            } finally {
+                locks[i].unlockRead(stamp);
+            }
+        }
+    }
+}
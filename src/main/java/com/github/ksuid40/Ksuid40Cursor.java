@@ -0,0 +1,526 @@
+package com.github.ksuid40;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static com.github.ksuid40.Ksuid40.TOTAL_BYTES;
+
+/**
+ * A forward-only cursor over a sequence of {@code Ksuid}s, read component by component so that sequences can be
+ * merged and compared without creating an object per id.
+ * <p>
+ * A cursor starts before the first id; each call to {@link #next()} moves it to the next id, whose components can
+ * then be read. The operators {@link #merge(Ksuid40Cursor...)}, {@link #union(Ksuid40Cursor...)},
+ * {@link #intersection(Ksuid40Cursor, Ksuid40Cursor)}, {@link #difference(Ksuid40Cursor, Ksuid40Cursor)} and
+ * {@link #distinct(Ksuid40Cursor)} expect their inputs in {@link Ksuid40#compareTo(Ksuid40) natural order},
+ * produce ids in natural order, and hold only the current id of each input.
+ * <p>
+ * Cursors are not thread-safe.
+ */
+public abstract class Ksuid40Cursor {
+
+    /**
+     * Move to the next {@code Ksuid}. Once there are no more ids, this keeps returning false.
+     *
+     * @return false if there are no more ids
+     */
+    public abstract boolean next();
+
+    /**
+     * Get the timestamp component of the current {@code Ksuid}.
+     *
+     * @return timestamp component
+     */
+    public abstract long getTimestamp();
+
+    /**
+     * Get the first 8 bytes of the payload component of the current {@code Ksuid} as a big-endian word.
+     *
+     * @return high payload word
+     */
+    public abstract long getPayloadHigh();
+
+    /**
+     * Get the last 8 bytes of the payload component of the current {@code Ksuid} as a big-endian word.
+     *
+     * @return low payload word
+     */
+    public abstract long getPayloadLow();
+
+    /**
+     * Get the current {@code Ksuid} as an object.
+     *
+     * @return id
+     */
+    public Ksuid40 toKsuid() {
+        return Ksuid40.fromWords(getTimestamp(), getPayloadHigh(), getPayloadLow());
+    }
+
+    /**
+     * Iterate over the remaining {@code Ksuid}s, creating an object for each.
+     *
+     * @return iterator, sharing the position of this cursor
+     */
+    public Iterator<Ksuid40> toIterator() {
+        return new Iterator<Ksuid40>() {
+            private boolean advanced;
+            private boolean hasNext;
+
+            @Override
+            public boolean hasNext() {
+                if (!advanced) {
+                    hasNext = Ksuid40Cursor.this.next();
+                    advanced = true;
+                }
+                return hasNext;
+            }
+
+            @Override
+            public Ksuid40 next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                advanced = false;
+                return toKsuid();
+            }
+        };
+    }
+
+    /**
+     * Create a cursor over {@code Ksuid} objects.
+     *
+     * @param iterator ids
+     * @return cursor
+     */
+    public static Ksuid40Cursor of(final Iterator<? extends Ksuid40> iterator) {
+        return new IteratorCursor(iterator);
+    }
+
+    /**
+     * Create a cursor over the ids of an array. The array must not change while the cursor is in use.
+     *
+     * @param array ids
+     * @return cursor
+     */
+    public static Ksuid40Cursor of(final Ksuid40Array array) {
+        return new ArrayCursor(array);
+    }
+
+    /**
+     * Create a cursor over packed 21 byte {@link Ksuid40#asBytes() records} from a buffer's position to its limit,
+     * e.g. of a memory-mapped file, read in place through a {@link Ksuid40View}.
+     * The buffer's position is not moved.
+     *
+     * @param buffer records
+     * @return cursor
+     * @throws IllegalArgumentException if the remaining bytes are not whole records
+     */
+    public static Ksuid40Cursor of(final ByteBuffer buffer) {
+        if (buffer.remaining() % TOTAL_BYTES != 0) {
+            throw new IllegalArgumentException("buffer does not hold whole records of 21 bytes: " + buffer.remaining());
+        }
+        return new BufferCursor(buffer);
+    }
+
+    /**
+     * Merge sorted cursors into one, keeping duplicates. Each id costs about log2(k) comparisons for k inputs,
+     * by a tournament tree of losers.
+     *
+     * @param cursors sorted inputs
+     * @return sorted cursor
+     */
+    public static Ksuid40Cursor merge(final Ksuid40Cursor... cursors) {
+        return cursors.length == 1 ? cursors[0] : new MergeCursor(cursors.clone());
+    }
+
+    /**
+     * Merge sorted cursors into one, dropping duplicates.
+     *
+     * @param cursors sorted inputs
+     * @return sorted cursor
+     */
+    public static Ksuid40Cursor union(final Ksuid40Cursor... cursors) {
+        return distinct(merge(cursors));
+    }
+
+    /**
+     * Keep the ids of a sorted cursor that are also in another. Duplicates are kept as many times as both hold them.
+     *
+     * @param first sorted input
+     * @param second sorted input
+     * @return sorted cursor
+     */
+    public static Ksuid40Cursor intersection(final Ksuid40Cursor first, final Ksuid40Cursor second) {
+        return new IntersectionCursor(first, second);
+    }
+
+    /**
+     * Keep the ids of a sorted cursor that are not in another. A duplicate is dropped once per occurrence in second.
+     *
+     * @param first sorted input
+     * @param second sorted input
+     * @return sorted cursor
+     */
+    public static Ksuid40Cursor difference(final Ksuid40Cursor first, final Ksuid40Cursor second) {
+        return new DifferenceCursor(first, second);
+    }
+
+    /**
+     * Drop adjacent duplicates, which are all duplicates of a sorted cursor.
+     *
+     * @param cursor input
+     * @return cursor
+     */
+    public static Ksuid40Cursor distinct(final Ksuid40Cursor cursor) {
+        return new DistinctCursor(cursor);
+    }
+
+    private static int compare(final Ksuid40Cursor a, final Ksuid40Cursor b) {
+        return Ksuid40.compare(a.getTimestamp(), a.getPayloadHigh(), a.getPayloadLow(),
+                               b.getTimestamp(), b.getPayloadHigh(), b.getPayloadLow());
+    }
+
+    private static final class IteratorCursor extends Ksuid40Cursor {
+        private final Iterator<? extends Ksuid40> iterator;
+        private Ksuid40 current;
+
+        IteratorCursor(final Iterator<? extends Ksuid40> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean next() {
+            if (!iterator.hasNext()) {
+                return false;
+            }
+            current = iterator.next();
+            return true;
+        }
+
+        @Override
+        public long getTimestamp() {
+            return current.getTimestamp();
+        }
+
+        @Override
+        public long getPayloadHigh() {
+            return current.payloadHigh();
+        }
+
+        @Override
+        public long getPayloadLow() {
+            return current.payloadLow();
+        }
+
+        @Override
+        public Ksuid40 toKsuid() {
+            return current;
+        }
+    }
+
+    private static final class ArrayCursor extends Ksuid40Cursor {
+        private final Ksuid40Array array;
+        private int index = -1;
+
+        ArrayCursor(final Ksuid40Array array) {
+            this.array = array;
+        }
+
+        @Override
+        public boolean next() {
+            if (index + 1 >= array.size()) {
+                return false;
+            }
+            index++;
+            return true;
+        }
+
+        @Override
+        public long getTimestamp() {
+            return array.getTimestamp(index);
+        }
+
+        @Override
+        public long getPayloadHigh() {
+            return array.getPayloadHigh(index);
+        }
+
+        @Override
+        public long getPayloadLow() {
+            return array.getPayloadLow(index);
+        }
+    }
+
+    private static final class BufferCursor extends Ksuid40Cursor {
+        private final Ksuid40View view = new Ksuid40View();
+        private final ByteBuffer buffer;
+        private int offset;
+
+        BufferCursor(final ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.offset = buffer.position() - TOTAL_BYTES;
+        }
+
+        @Override
+        public boolean next() {
+            if (offset + 2 * TOTAL_BYTES > buffer.limit()) {
+                return false;
+            }
+            offset += TOTAL_BYTES;
+            view.wrap(buffer, offset);
+            return true;
+        }
+
+        @Override
+        public long getTimestamp() {
+            return view.getTimestamp();
+        }
+
+        @Override
+        public long getPayloadHigh() {
+            return view.getPayloadHigh();
+        }
+
+        @Override
+        public long getPayloadLow() {
+            return view.getPayloadLow();
+        }
+    }
+
+    /**
+     * Merges by a tree of losers: each inner node holds the input that lost the match there, and the root the
+     * overall winner, so after the winner moves only the matches on its path to the root are replayed.
+     */
+    private static final class MergeCursor extends Ksuid40Cursor {
+        private final Ksuid40Cursor[] inputs;
+        private final boolean[] exhausted;
+        // Inner nodes 1..k-1 hold losers, 0 the winner; input i is the leaf k+i and node n the parent of 2n and 2n+1
+        private final int[] tree;
+        private boolean started;
+
+        MergeCursor(final Ksuid40Cursor[] inputs) {
+            this.inputs = inputs;
+            this.exhausted = new boolean[inputs.length];
+            this.tree = new int[Math.max(1, inputs.length)];
+        }
+
+        @Override
+        public boolean next() {
+            final int k = inputs.length;
+            if (k == 0) {
+                return false;
+            }
+            if (!started) {
+                started = true;
+                for (int i = 0; i < k; i++) {
+                    exhausted[i] = !inputs[i].next();
+                }
+                tree[0] = build(1);
+            } else {
+                int winner = tree[0];
+                if (exhausted[winner]) {
+                    return false;
+                }
+                exhausted[winner] = !inputs[winner].next();
+                for (int node = (winner + k) >>> 1; node > 0; node >>>= 1) {
+                    if (less(tree[node], winner)) {
+                        final int loser = winner;
+                        winner = tree[node];
+                        tree[node] = loser;
+                    }
+                }
+                tree[0] = winner;
+            }
+            return !exhausted[tree[0]];
+        }
+
+        private int build(final int node) {
+            if (node >= inputs.length) {
+                return node - inputs.length;
+            }
+            final int left = build(2 * node);
+            final int right = build(2 * node + 1);
+            if (less(right, left)) {
+                tree[node] = left;
+                return right;
+            }
+            tree[node] = right;
+            return left;
+        }
+
+        // Exhausted inputs lose every match
+        private boolean less(final int a, final int b) {
+            if (exhausted[a] || exhausted[b]) {
+                return !exhausted[a];
+            }
+            return compare(inputs[a], inputs[b]) < 0;
+        }
+
+        @Override
+        public long getTimestamp() {
+            return inputs[tree[0]].getTimestamp();
+        }
+
+        @Override
+        public long getPayloadHigh() {
+            return inputs[tree[0]].getPayloadHigh();
+        }
+
+        @Override
+        public long getPayloadLow() {
+            return inputs[tree[0]].getPayloadLow();
+        }
+
+        @Override
+        public Ksuid40 toKsuid() {
+            return inputs[tree[0]].toKsuid();
+        }
+    }
+
+    private static final class IntersectionCursor extends Ksuid40Cursor {
+        private final Ksuid40Cursor first;
+        private final Ksuid40Cursor second;
+
+        IntersectionCursor(final Ksuid40Cursor first, final Ksuid40Cursor second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public boolean next() {
+            if (!first.next() || !second.next()) {
+                return false;
+            }
+            int cmp;
+            while ((cmp = compare(first, second)) != 0) {
+                if (!(cmp < 0 ? first.next() : second.next())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public long getTimestamp() {
+            return first.getTimestamp();
+        }
+
+        @Override
+        public long getPayloadHigh() {
+            return first.getPayloadHigh();
+        }
+
+        @Override
+        public long getPayloadLow() {
+            return first.getPayloadLow();
+        }
+
+        @Override
+        public Ksuid40 toKsuid() {
+            return first.toKsuid();
+        }
+    }
+
+    private static final class DifferenceCursor extends Ksuid40Cursor {
+        private final Ksuid40Cursor first;
+        private final Ksuid40Cursor second;
+        private boolean secondStarted;
+        private boolean secondExhausted;
+
+        DifferenceCursor(final Ksuid40Cursor first, final Ksuid40Cursor second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public boolean next() {
+            if (!secondStarted) {
+                secondStarted = true;
+                secondExhausted = !second.next();
+            }
+            while (first.next()) {
+                int cmp = 1;
+                while (!secondExhausted && (cmp = compare(first, second)) > 0) {
+                    secondExhausted = !second.next();
+                }
+                if (secondExhausted || cmp < 0) {
+                    return true;
+                }
+                // Equal, so the id is dropped along with its match
+                secondExhausted = !second.next();
+            }
+            return false;
+        }
+
+        @Override
+        public long getTimestamp() {
+            return first.getTimestamp();
+        }
+
+        @Override
+        public long getPayloadHigh() {
+            return first.getPayloadHigh();
+        }
+
+        @Override
+        public long getPayloadLow() {
+            return first.getPayloadLow();
+        }
+
+        @Override
+        public Ksuid40 toKsuid() {
+            return first.toKsuid();
+        }
+    }
+
+    private static final class DistinctCursor extends Ksuid40Cursor {
+        private final Ksuid40Cursor cursor;
+        private boolean started;
+        private long timestamp;
+        private long payloadHigh;
+        private long payloadLow;
+
+        DistinctCursor(final Ksuid40Cursor cursor) {
+            this.cursor = cursor;
+        }
+
+        @Override
+        public boolean next() {
+            while (cursor.next()) {
+                final long nextTimestamp = cursor.getTimestamp();
+                final long nextPayloadHigh = cursor.getPayloadHigh();
+                final long nextPayloadLow = cursor.getPayloadLow();
+                if (!started || nextTimestamp != timestamp || nextPayloadHigh != payloadHigh
+                        || nextPayloadLow != payloadLow) {
+                    started = true;
+                    timestamp = nextTimestamp;
+                    payloadHigh = nextPayloadHigh;
+                    payloadLow = nextPayloadLow;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public long getPayloadHigh() {
+            return payloadHigh;
+        }
+
+        @Override
+        public long getPayloadLow() {
+            return payloadLow;
+        }
+
+        @Override
+        public Ksuid40 toKsuid() {
+            return cursor.toKsuid();
+        }
+    }
+}
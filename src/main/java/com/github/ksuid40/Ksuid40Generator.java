@@ -1,12 +1,21 @@
 package com.github.ksuid40;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.time.Clock;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Objects;
 import java.util.Random;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 import static com.github.ksuid40.Ksuid40.EPOCH;
 import static com.github.ksuid40.Ksuid40.PAYLOAD_BYTES;
+import static com.github.ksuid40.Ksuid40.TOTAL_BYTES;
 
 /**
  * Generate K-Sortable Globally Unique IDs (KSUID).
@@ -18,15 +27,28 @@ import static com.github.ksuid40.Ksuid40.PAYLOAD_BYTES;
  */
 @SuppressWarnings("WeakerAccess")
 public class Ksuid40Generator {
-    private static final Ksuid40Generator INSTANCE = new Ksuid40Generator(new SecureRandom());
-    
-    private final Supplier<byte[]> payloadSupplier;
+    private static final int SEED_BYTES = 32;
+    private static final int THREAD_BUFFER_BYTES = 4096;
+    // Number of payloads drawn at a time by batch generation
+    private static final int BATCH_SIZE = 256;
+    // Seeds the per-thread generators, so is only used once per thread
+    private static final SecureRandom SEED_SOURCE = new SecureRandom();
+    // A generator per thread, as SecureRandom.nextBytes is synchronized by several providers, e.g. NativePRNG
+    private static final ThreadLocal<Ksuid40Generator> THREAD_GENERATOR =
+            ThreadLocal.withInitial(() -> new Ksuid40Generator(newThreadRandom(), THREAD_BUFFER_BYTES));
+
+    // Scratch for payloads, wiped after each use, so generating allocates nothing but the KSUID. It is taken out of
+    // its holder while in use, so a payload source that generates KSUIDs itself gets a fresh array instead
+    private static final ThreadLocal<byte[][]> PAYLOAD = ThreadLocal.withInitial(() -> new byte[][] {new byte[PAYLOAD_BYTES]});
+
+    private final PayloadSource payloadSource;
+    private final Clock clock;
 
     /**
      * Generate a new KSUID-40 string representation
      * 
      * The {@code Ksuid40} is generated using a cryptographically strong pseudo
-     * random number generator.
+     * random number generator of the calling thread, so threads do not contend.
      *
      * @return string representation of new KSUID-40
      */
@@ -35,7 +57,33 @@ public class Ksuid40Generator {
     }
 
     static Ksuid40 createKsuid() {
-        return INSTANCE.newKsuid();
+        return THREAD_GENERATOR.get().newKsuid();
+    }
+
+    /**
+     * Create a cryptographically strong generator for one thread, independently seeded from the shared source.
+     */
+    static SecureRandom newThreadRandom() {
+        final byte[] seed = new byte[SEED_BYTES];
+        SEED_SOURCE.nextBytes(seed);
+        final SecureRandom random = newSecureRandom();
+        random.setSeed(seed);
+        return random;
+    }
+
+    /**
+     * Prefer a pure Java DRBG (Java 9+) or SHA1PRNG, which do not share state with other instances,
+     * over the platform default.
+     */
+    private static SecureRandom newSecureRandom() {
+        for (final String algorithm : new String[] {"DRBG", "SHA1PRNG"}) {
+            try {
+                return SecureRandom.getInstance(algorithm);
+            } catch (final NoSuchAlgorithmException e) {
+                // try the next algorithm
+            }
+        }
+        return new SecureRandom();
     }
 
     /**
@@ -44,34 +92,75 @@ public class Ksuid40Generator {
      * @param random source of random bytes for payload, SecureRandom is recommended
      */
     public Ksuid40Generator(final Random random) {
-        this(() -> {
-            final byte[] payload = new byte[PAYLOAD_BYTES];
-            random.nextBytes(payload);
-            return payload;
-        });
+        this(PayloadSource.of(random));
+    }
+
+    /**
+     * Construct a KSUID generator drawing random bytes in chunks, to pay the per-call cost of the source,
+     * such as locking or a system call, once per chunk rather than once per KSUID.
+     * <p>
+     * Each payload is wiped from the buffer as soon as it is taken. Callers are serialized while taking a payload.
+     *
+     * @param random source of random bytes for payload, SecureRandom is recommended
+     * @param bufferSize number of random bytes drawn at a time, a positive multiple of {@link Ksuid40#PAYLOAD_BYTES PAYLOAD_BYTES}
+     */
+    public Ksuid40Generator(final Random random, final int bufferSize) {
+        this(PayloadSource.buffered(random, bufferSize));
     }
 
     /**
      * Construct a KSUID generator.
+     * <p>
+     * The supplier is called once to check the length of its arrays; prefer {@link #Ksuid40Generator(PayloadSource)},
+     * which neither allocates an array per KSUID nor needs checking.
      *
      * @param payloadSupplier supplier of byte arrays which must be {@link Ksuid40#PAYLOAD_BYTES PAYLOAD_BYTES} in length
      */
     public Ksuid40Generator(final Supplier<byte[]> payloadSupplier) {
-        if (payloadSupplier.get().length != PAYLOAD_BYTES) {
-            throw new IllegalArgumentException("payloadBytesSupplier must supply byte arrays of length " + PAYLOAD_BYTES);
-        }
-        this.payloadSupplier = payloadSupplier;
+        this(PayloadSource.of(checkLength(payloadSupplier)));
+    }
+
+    /**
+     * Construct a KSUID generator.
+     *
+     * @param payloadSource source of random bytes for payload
+     */
+    public Ksuid40Generator(final PayloadSource payloadSource) {
+        this(payloadSource, Clock.systemUTC());
+    }
+
+    /**
+     * Construct a KSUID generator.
+     *
+     * @param payloadSource source of random bytes for payload
+     * @param clock source of the current time for {@link #newKsuid()}
+     */
+    public Ksuid40Generator(final PayloadSource payloadSource, final Clock clock) {
+        this.payloadSource = Objects.requireNonNull(payloadSource, "payloadSource");
+        this.clock = Objects.requireNonNull(clock, "clock");
+    }
+
+    /**
+     * Get a generator sharing this generator's source of payloads but reading the current time from another clock,
+     * e.g. a fixed clock to generate KSUIDs deterministically in tests.
+     *
+     * @param clock source of the current time for {@link #newKsuid()}
+     * @return a generator
+     */
+    public Ksuid40Generator withClock(final Clock clock) {
+        return new Ksuid40Generator(payloadSource, clock);
     }
 
     /**
      * Generate a new KSUID.
      * <p>
-     * The equivalent of calling {@link #newKsuid(Instant) newKsuid(Instant.now())}.
+     * The equivalent of calling {@link #newKsuid(Instant) newKsuid(Instant.now(clock))}, but only reading the
+     * clock's milliseconds, so no {@link Instant} is created.
      *
      * @return a Ksuid object
      */
     public Ksuid40 newKsuid() {
-        return newKsuid(Instant.now());
+        return newKsuid(Math.floorDiv(clock.millis(), 1000));
     }
 
     /**
@@ -81,10 +170,255 @@ public class Ksuid40Generator {
      * @return a Ksuid object
      */
     public Ksuid40 newKsuid(final Instant instant) {
-        return Ksuid40.newBuilder()
-                    .withTimestamp((instant.getEpochSecond() - EPOCH)) // 5 bytes
-                    .withPayload(payloadSupplier.get()) // 16 bytes
-                    .build();
+        return newKsuid(instant.getEpochSecond());
+    }
+
+    /**
+     * Generate a new KSUID with a timestamp component derived from a number of seconds since the Unix epoch.
+     *
+     * @param epochSecond seconds since 1970-01-01T00:00:00Z from which to derive the timestamp component
+     * @return a Ksuid object
+     */
+    public Ksuid40 newKsuid(final long epochSecond) {
+        final byte[][] holder = PAYLOAD.get();
+        final byte[] payload = holder[0] != null ? holder[0] : new byte[PAYLOAD_BYTES];
+        holder[0] = null;
+        try {
+            payloadSource.fill(payload, 0);
+            return Ksuid40.fromPayload(epochSecond - EPOCH, payload, 0);
+        } finally {
+            Arrays.fill(payload, (byte) 0);
+            holder[0] = payload;
+        }
     }
 
+    /**
+     * Generate new KSUIDs, reading the clock once for the batch and drawing payloads in bulk.
+     *
+     * @param count number of KSUIDs
+     * @return an array of Ksuid objects
+     * @throws IllegalArgumentException if count is negative
+     */
+    public Ksuid40[] newKsuids(final int count) {
+        checkCount(count);
+        final Ksuid40[] ksuid40s = new Ksuid40[count];
+        fill(ksuid40s);
+        return ksuid40s;
+    }
+
+    /**
+     * Fill an array with new KSUIDs, reading the clock once for the batch and drawing payloads in bulk.
+     *
+     * @param dst array to fill
+     */
+    public void fill(final Ksuid40[] dst) {
+        fill(dst, 0, dst.length, Math.floorDiv(clock.millis(), 1000));
+    }
+
+    /**
+     * Write new KSUIDs as packed 21 byte {@link Ksuid40#asBytes() records} at the buffer's position, advancing it,
+     * reading the clock once for the batch and drawing payloads in bulk. No object is created per KSUID.
+     *
+     * @param dst destination buffer
+     * @param count number of KSUIDs
+     * @throws IllegalArgumentException if count is negative
+     * @throws BufferOverflowException if fewer than 21 bytes remain for each KSUID, in which case nothing is written
+     * @throws ReadOnlyBufferException if the buffer is read-only
+     */
+    public void fill(final ByteBuffer dst, final int count) {
+        checkCount(count);
+        if (dst.remaining() < (long) count * TOTAL_BYTES) {
+            throw new BufferOverflowException();
+        }
+        final long timestamp = Math.floorDiv(clock.millis(), 1000) - EPOCH;
+        final byte[] payloads = new byte[Math.min(count, BATCH_SIZE) * PAYLOAD_BYTES];
+        try {
+            for (int i = 0; i < count; ) {
+                final int batch = Math.min(count - i, BATCH_SIZE);
+                payloadSource.fill(payloads, 0, batch);
+                for (int j = 0; j < batch; j++, i++) {
+                    for (int shift = 32; shift >= 0; shift -= 8) {
+                        dst.put((byte) (timestamp >>> shift));
+                    }
+                    dst.put(payloads, j * PAYLOAD_BYTES, PAYLOAD_BYTES);
+                }
+            }
+        } finally {
+            Arrays.fill(payloads, (byte) 0);
+        }
+    }
+
+    /**
+     * Generate new KSUIDs on the common fork-join pool, each worker drawing payloads from its own cryptographically
+     * strong pseudo random number generator as {@link Ksuid40#newKsuid()} does. The clock is read once for the batch.
+     *
+     * @param count number of KSUIDs
+     * @return an array of Ksuid objects
+     * @throws IllegalArgumentException if count is negative
+     */
+    public static Ksuid40[] parallelNewKsuids(final int count) {
+        checkCount(count);
+        final long epochSecond = Math.floorDiv(System.currentTimeMillis(), 1000);
+        final Ksuid40[] ksuid40s = new Ksuid40[count];
+        IntStream.range(0, (count + BATCH_SIZE - 1) / BATCH_SIZE)
+                 .parallel()
+                 .forEach(batch -> THREAD_GENERATOR.get().fill(ksuid40s, batch * BATCH_SIZE,
+                                                               Math.min(count, (batch + 1) * BATCH_SIZE), epochSecond));
+        return ksuid40s;
+    }
+
+    private void fill(final Ksuid40[] dst, final int from, final int to, final long epochSecond) {
+        final byte[] payloads = new byte[Math.min(to - from, BATCH_SIZE) * PAYLOAD_BYTES];
+        try {
+            for (int i = from; i < to; ) {
+                final int batch = Math.min(to - i, BATCH_SIZE);
+                payloadSource.fill(payloads, 0, batch);
+                for (int j = 0; j < batch; j++, i++) {
+                    dst[i] = Ksuid40.fromPayload(epochSecond - EPOCH, payloads, j * PAYLOAD_BYTES);
+                }
+            }
+        } finally {
+            Arrays.fill(payloads, (byte) 0);
+        }
+    }
+
+    private static void checkCount(final int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count is negative: " + count);
+        }
+    }
+
+    private static Supplier<byte[]> checkLength(final Supplier<byte[]> payloadSupplier) {
+        if (payloadSupplier.get().length != PAYLOAD_BYTES) {
+            throw new IllegalArgumentException("payloadBytesSupplier must supply byte arrays of length " + PAYLOAD_BYTES);
+        }
+        return payloadSupplier;
+    }
+
+    /**
+     * A source of random bytes for the payload of KSUIDs, writing into storage provided by the caller
+     * so that no array is allocated per KSUID.
+     */
+    @FunctionalInterface
+    public interface PayloadSource {
+
+        /**
+         * Write {@link Ksuid40#PAYLOAD_BYTES PAYLOAD_BYTES} random bytes into a byte array.
+         *
+         * @param dst destination for the bytes
+         * @param offset index in dst of the first byte
+         */
+        void fill(byte[] dst, int offset);
+
+        /**
+         * Write a number of payloads of {@link Ksuid40#PAYLOAD_BYTES PAYLOAD_BYTES} random bytes one after another
+         * into a byte array. Sources with a per-call cost should draw them all at once.
+         *
+         * @param dst destination for the bytes
+         * @param offset index in dst of the first byte
+         * @param count number of payloads
+         */
+        default void fill(final byte[] dst, final int offset, final int count) {
+            for (int i = 0; i < count; i++) {
+                fill(dst, offset + i * PAYLOAD_BYTES);
+            }
+        }
+
+        /**
+         * A source calling {@link Random#nextBytes(byte[])} for each payload, or once for a number of payloads.
+         *
+         * @param random source of random bytes, SecureRandom is recommended
+         * @return payload source
+         */
+        static PayloadSource of(final Random random) {
+            return new RandomPayloadSource(Objects.requireNonNull(random, "random"));
+        }
+
+        /**
+         * A source drawing random bytes in chunks and wiping each payload from the chunk as it is taken.
+         *
+         * @param random source of random bytes, SecureRandom is recommended
+         * @param bufferSize number of random bytes drawn at a time, a positive multiple of {@link Ksuid40#PAYLOAD_BYTES PAYLOAD_BYTES}
+         * @return payload source
+         */
+        static PayloadSource buffered(final Random random, final int bufferSize) {
+            return new BufferedPayloadSource(Objects.requireNonNull(random, "random"), bufferSize);
+        }
+
+        /**
+         * A source copying arrays from a supplier.
+         *
+         * @param payloadSupplier supplier of byte arrays which must be {@link Ksuid40#PAYLOAD_BYTES PAYLOAD_BYTES} in length
+         * @return payload source, throwing {@link IllegalStateException} for an array of another length
+         */
+        static PayloadSource of(final Supplier<byte[]> payloadSupplier) {
+            Objects.requireNonNull(payloadSupplier, "payloadSupplier");
+            return (dst, offset) -> {
+                final byte[] payload = payloadSupplier.get();
+                if (payload.length != PAYLOAD_BYTES) {
+                    throw new IllegalStateException("payloadBytesSupplier supplied a byte array of length " + payload.length);
+                }
+                System.arraycopy(payload, 0, dst, offset, PAYLOAD_BYTES);
+            };
+        }
+    }
+
+    private static final class RandomPayloadSource implements PayloadSource {
+        private final Random random;
+        // Random only fills whole arrays, so ranges of a larger array are drawn here first. Batch generation
+        // requests the same partial batch each time for the same count, so this is rarely reallocated
+        private byte[] scratch = new byte[0];
+
+        RandomPayloadSource(final Random random) {
+            this.random = random;
+        }
+
+        @Override
+        public void fill(final byte[] dst, final int offset) {
+            fill(dst, offset, 1);
+        }
+
+        @Override
+        public void fill(final byte[] dst, final int offset, final int count) {
+            final int length = count * PAYLOAD_BYTES;
+            if (offset == 0 && dst.length == length) {
+                random.nextBytes(dst);
+                return;
+            }
+            synchronized (this) {
+                if (scratch.length != length) {
+                    scratch = new byte[length];
+                }
+                random.nextBytes(scratch);
+                System.arraycopy(scratch, 0, dst, offset, length);
+                Arrays.fill(scratch, (byte) 0);
+            }
+        }
+    }
+
+    private static final class BufferedPayloadSource implements PayloadSource {
+        private final Random random;
+        private final byte[] buffer;
+        private int position;
+
+        BufferedPayloadSource(final Random random, final int bufferSize) {
+            if (bufferSize <= 0 || bufferSize % PAYLOAD_BYTES != 0) {
+                throw new IllegalArgumentException("bufferSize must be a positive multiple of " + PAYLOAD_BYTES);
+            }
+            this.random = random;
+            this.buffer = new byte[bufferSize];
+            this.position = bufferSize;
+        }
+
+        @Override
+        public synchronized void fill(final byte[] dst, final int offset) {
+            if (position == buffer.length) {
+                random.nextBytes(buffer);
+                position = 0;
+            }
+            System.arraycopy(buffer, position, dst, offset, PAYLOAD_BYTES);
+            Arrays.fill(buffer, position, position + PAYLOAD_BYTES, (byte) 0);
+            position += PAYLOAD_BYTES;
+        }
+    }
 }
@@ -0,0 +1,142 @@
+package com.github.ksuid40;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A map keyed by {@code Ksuid}s stored inline in a primitive open-addressing table, without an object per entry.
+ * <p>
+ * Each slot takes 24 bytes of key and a value reference, and the table is kept at most two thirds full,
+ * where a {@code HashMap<Ksuid40, V>} holds a node and a {@link Ksuid40} per entry.
+ * Maps are not thread-safe. Null keys are not permitted, null values are.
+ *
+ * @param <V> type of the values
+ */
+public final class Ksuid40HashMap<V> extends Ksuid40HashTable {
+
+    /**
+     * Create an empty map.
+     */
+    public Ksuid40HashMap() {
+        this(0);
+    }
+
+    /**
+     * Create an empty map with room for a number of entries before growing.
+     *
+     * @param expectedSize number of entries
+     * @throws IllegalArgumentException if expectedSize is negative or too large
+     */
+    public Ksuid40HashMap(final int expectedSize) {
+        super(expectedSize, true);
+    }
+
+    /**
+     * Get the value mapped to a {@code Ksuid}.
+     *
+     * @param key id to look for
+     * @return value, or null if the id is absent
+     */
+    public V get(final Ksuid40 key) {
+        return valueAt(find(key.getTimestamp(), key.payloadHigh(), key.payloadLow()));
+    }
+
+    /**
+     * Get the value mapped to the {@code Ksuid} a view is positioned over.
+     *
+     * @param key view of the id to look for
+     * @return value, or null if the id is absent
+     */
+    public V get(final Ksuid40View key) {
+        return valueAt(find(key.getTimestamp(), key.getPayloadHigh(), key.getPayloadLow()));
+    }
+
+    /**
+     * Check whether a {@code Ksuid} is mapped.
+     *
+     * @param key id to look for
+     * @return true if the id is present
+     */
+    public boolean containsKey(final Ksuid40 key) {
+        return find(key.getTimestamp(), key.payloadHigh(), key.payloadLow()) >= 0;
+    }
+
+    /**
+     * Map a {@code Ksuid} to a value, replacing any previous value.
+     *
+     * @param key id to map
+     * @param value value to map the id to
+     * @return the previous value, or null if the id was absent
+     * @throws IllegalStateException if the map is full
+     */
+    public V put(final Ksuid40 key, final V value) {
+        final int slot = insert(key.getTimestamp(), key.payloadHigh(), key.payloadLow());
+        final int index = slot < 0 ? -(slot + 1) : slot;
+        final V previous = valueAt(index);
+        values[index] = value;
+        return previous;
+    }
+
+    /**
+     * Get the value mapped to a {@code Ksuid}, mapping it to a computed value first if it is absent or mapped to
+     * null, as {@link java.util.Map#computeIfAbsent(Object, Function)} does. Nothing is mapped if the function
+     * returns null.
+     *
+     * @param key id to look for
+     * @param mappingFunction function computing a value for an absent id
+     * @return the present or computed value, or null if the computed value is null
+     * @throws IllegalStateException if the map is full
+     */
+    public V computeIfAbsent(final Ksuid40 key, final Function<? super Ksuid40, ? extends V> mappingFunction) {
+        int slot = find(key.getTimestamp(), key.payloadHigh(), key.payloadLow());
+        final V present = valueAt(slot);
+        if (present != null) {
+            return present;
+        }
+        final V value = mappingFunction.apply(key);
+        if (value == null) {
+            return null;
+        }
+        // The function may have changed the map, so the slot is looked up again
+        slot = insert(key.getTimestamp(), key.payloadHigh(), key.payloadLow());
+        values[slot < 0 ? -(slot + 1) : slot] = value;
+        return value;
+    }
+
+    /**
+     * Remove the mapping of a {@code Ksuid} if it is present.
+     *
+     * @param key id to remove
+     * @return the previous value, or null if the id was absent
+     */
+    public V remove(final Ksuid40 key) {
+        final int slot = find(key.getTimestamp(), key.payloadHigh(), key.payloadLow());
+        if (slot < 0) {
+            return null;
+        }
+        final V previous = valueAt(slot);
+        removeAt(slot);
+        return previous;
+    }
+
+    /**
+     * Perform an action for each entry in the map, in no particular order.
+     *
+     * @param action action to perform
+     */
+    public void forEach(final BiConsumer<? super Ksuid40, ? super V> action) {
+        for (int slot = 0; slot < capacity(); slot++) {
+            if (!isEmptySlot(slot)) {
+                action.accept(keyAt(slot), valueAt(slot));
+            }
+        }
+    }
+
+    /**
+     * Get the value in a slot found by {@link #find}, or null if the slot is -1.
+     */
+    @SuppressWarnings("unchecked")
+    final V valueAt(final int slot) {
+        return slot >= 0 ? (V) values[slot] : null;
+    }
+}
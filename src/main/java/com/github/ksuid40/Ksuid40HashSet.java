@@ -0,0 +1,115 @@
+package com.github.ksuid40;
+
+import java.util.function.Consumer;
+
+/**
+ * A set of {@code Ksuid}s stored inline in a primitive open-addressing table, without an object per entry.
+ * <p>
+ * Each slot takes 24 bytes and the table is kept at most two thirds full, where a {@code HashSet<Ksuid40>}
+ * holds a node and a {@link Ksuid40} per entry. Sets are not thread-safe and do not permit null.
+ */
+public final class Ksuid40HashSet extends Ksuid40HashTable {
+
+    /**
+     * Create an empty set.
+     */
+    public Ksuid40HashSet() {
+        this(0);
+    }
+
+    /**
+     * Create an empty set with room for a number of ids before growing.
+     *
+     * @param expectedSize number of ids
+     * @throws IllegalArgumentException if expectedSize is negative or too large
+     */
+    public Ksuid40HashSet(final int expectedSize) {
+        super(expectedSize, false);
+    }
+
+    /**
+     * Add a {@code Ksuid} if it is absent.
+     *
+     * @param ksuid40 id to add
+     * @return true if the id was absent
+     * @throws IllegalStateException if the set is full
+     */
+    public boolean add(final Ksuid40 ksuid40) {
+        return insert(ksuid40.getTimestamp(), ksuid40.payloadHigh(), ksuid40.payloadLow()) < 0;
+    }
+
+    /**
+     * Add the {@code Ksuid} a view is positioned over if it is absent.
+     *
+     * @param view view of the id to add
+     * @return true if the id was absent
+     * @throws IllegalStateException if the set is full
+     */
+    public boolean add(final Ksuid40View view) {
+        return insert(view.getTimestamp(), view.getPayloadHigh(), view.getPayloadLow()) < 0;
+    }
+
+    /**
+     * Check whether a {@code Ksuid} is present.
+     *
+     * @param ksuid40 id to look for
+     * @return true if the id is present
+     */
+    public boolean contains(final Ksuid40 ksuid40) {
+        return find(ksuid40.getTimestamp(), ksuid40.payloadHigh(), ksuid40.payloadLow()) >= 0;
+    }
+
+    /**
+     * Check whether the {@code Ksuid} a view is positioned over is present.
+     *
+     * @param view view of the id to look for
+     * @return true if the id is present
+     */
+    public boolean contains(final Ksuid40View view) {
+        return find(view.getTimestamp(), view.getPayloadHigh(), view.getPayloadLow()) >= 0;
+    }
+
+    /**
+     * Remove a {@code Ksuid} if it is present.
+     *
+     * @param ksuid40 id to remove
+     * @return true if the id was present
+     */
+    public boolean remove(final Ksuid40 ksuid40) {
+        final int slot = find(ksuid40.getTimestamp(), ksuid40.payloadHigh(), ksuid40.payloadLow());
+        if (slot < 0) {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+    /**
+     * Perform an action for each {@code Ksuid} in the set, in no particular order.
+     *
+     * @param action action to perform
+     */
+    public void forEach(final Consumer<? super Ksuid40> action) {
+        for (int slot = 0; slot < capacity(); slot++) {
+            if (!isEmptySlot(slot)) {
+                action.accept(keyAt(slot));
+            }
+        }
+    }
+
+    /**
+     * Copy the ids into a new {@link Ksuid40Array}, in no particular order.
+     *
+     * @return ids
+     */
+    public Ksuid40Array toArray() {
+        final Ksuid40Array array = new Ksuid40Array(size);
+        for (int slot = 0; slot < capacity(); slot++) {
+            if (!isEmptySlot(slot)) {
+                final int i = slot * WORDS;
+                array.add(keys[i], keys[i + 1], keys[i + 2]);
+            }
+        }
+        return array;
+    }
+}
@@ -0,0 +1,207 @@
+package com.github.ksuid40;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table of {@code Ksuid}s stored inline as timestamp/payload word triples,
+ * shared by {@link Ksuid40HashSet} and {@link Ksuid40HashMap}.
+ * <p>
+ * Collisions are resolved by linear probing and removals by shifting later entries back, so there are no
+ * tombstones. Any timestamp word is a valid key, as ids can be built with any timestamp, so occupied slots are
+ * marked in a separate flag array.
+ */
+abstract class Ksuid40HashTable {
+    static final int WORDS = 3;
+
+    private static final int MIN_CAPACITY = 8;
+    // Keeps the key array within the largest array the JVMs in use allocate reliably
+    private static final int MAX_CAPACITY = 1 << 29;
+    // Fibonacci hashing spreads the folded words over the high bits used as the slot
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+    // A second odd multiplier picks stripes independently of the slots within them
+    private static final long STRIPE_MULTIPLIER = 0xC2B2AE3D27D4EB4FL;
+
+    long[] keys;
+    Object[] values;
+    int size;
+
+    private final boolean hasValues;
+    private boolean[] used;
+    private int mask;
+    private int shift;
+    private int threshold;
+
+    Ksuid40HashTable(final int expectedSize, final boolean hasValues) {
+        if (expectedSize < 0 || expectedSize > maxSize(MAX_CAPACITY)) {
+            throw new IllegalArgumentException("expected size is not between 0 and " + maxSize(MAX_CAPACITY) + ": " + expectedSize);
+        }
+        this.hasValues = hasValues;
+        int capacity = MIN_CAPACITY;
+        while (maxSize(capacity) < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Get the number of entries.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check whether there are no entries.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove all entries, keeping the capacity.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        if (hasValues) {
+            Arrays.fill(values, null);
+        }
+        size = 0;
+    }
+
+    final boolean isEmptySlot(final int slot) {
+        return !used[slot];
+    }
+
+    final Ksuid40 keyAt(final int slot) {
+        final int i = slot * WORDS;
+        return Ksuid40.fromWords(keys[i], keys[i + 1], keys[i + 2]);
+    }
+
+    final int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Find the slot holding a key.
+     *
+     * @return slot, or -1 if the key is absent
+     */
+    final int find(final long timestamp, final long payloadHigh, final long payloadLow) {
+        for (int slot = home(timestamp, payloadHigh, payloadLow); ; slot = (slot + 1) & mask) {
+            if (!used[slot]) {
+                return -1;
+            }
+            final int i = slot * WORDS;
+            if (keys[i] == timestamp && keys[i + 1] == payloadHigh && keys[i + 2] == payloadLow) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Find the slot holding a key, claiming an empty one if the key is absent.
+     * The table only grows when a slot is about to be claimed, so a present key is always found.
+     *
+     * @return slot of a present key, or -(slot + 1) of a newly claimed slot
+     */
+    final int insert(final long timestamp, final long payloadHigh, final long payloadLow) {
+        for (int slot = home(timestamp, payloadHigh, payloadLow); ; slot = (slot + 1) & mask) {
+            final int i = slot * WORDS;
+            if (!used[slot]) {
+                if (size >= threshold) {
+                    if (capacity() == MAX_CAPACITY) {
+                        throw new IllegalStateException("cannot hold more than " + threshold + " entries");
+                    }
+                    rehash(capacity() << 1);
+                    // The key is absent, so probing the grown table claims a slot without growing again
+                    return insert(timestamp, payloadHigh, payloadLow);
+                }
+                keys[i] = timestamp;
+                keys[i + 1] = payloadHigh;
+                keys[i + 2] = payloadLow;
+                used[slot] = true;
+                size++;
+                return -(slot + 1);
+            }
+            if (keys[i] == timestamp && keys[i + 1] == payloadHigh && keys[i + 2] == payloadLow) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Empty a slot, shifting back later entries of the same probe run that may no longer be reachable.
+     */
+    final void removeAt(final int slot) {
+        int hole = slot;
+        for (int next = (slot + 1) & mask; ; next = (next + 1) & mask) {
+            if (!used[next]) {
+                break;
+            }
+            final int i = next * WORDS;
+            final int home = home(keys[i], keys[i + 1], keys[i + 2]);
+            // The entry may fill the hole unless its home lies cyclically after the hole
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                System.arraycopy(keys, i, keys, hole * WORDS, WORDS);
+                if (hasValues) {
+                    values[hole] = values[next];
+                }
+                hole = next;
+            }
+        }
+        used[hole] = false;
+        if (hasValues) {
+            values[hole] = null;
+        }
+        size--;
+    }
+
+    /**
+     * Pick one of {@code 1 << bits} stripes for a key, for tables partitioned across locks.
+     */
+    static int stripe(final long timestamp, final long payloadHigh, final long payloadLow, final int bits) {
+        return bits == 0 ? 0 : (int) (((timestamp ^ payloadHigh ^ payloadLow) * STRIPE_MULTIPLIER) >>> (64 - bits));
+    }
+
+    private int home(final long timestamp, final long payloadHigh, final long payloadLow) {
+        return (int) (((timestamp ^ payloadHigh ^ payloadLow) * GOLDEN_RATIO) >>> shift);
+    }
+
+    private void rehash(final int capacity) {
+        final long[] oldKeys = keys;
+        final Object[] oldValues = values;
+        final boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0, oldSlot = 0; i < oldKeys.length; i += WORDS, oldSlot++) {
+            if (oldUsed[oldSlot]) {
+                int slot = home(oldKeys[i], oldKeys[i + 1], oldKeys[i + 2]);
+                while (used[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                System.arraycopy(oldKeys, i, keys, slot * WORDS, WORDS);
+                used[slot] = true;
+                if (hasValues) {
+                    values[slot] = oldValues[oldSlot];
+                }
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+        keys = new long[capacity * WORDS];
+        used = new boolean[capacity];
+        values = hasValues ? new Object[capacity] : null;
+        mask = capacity - 1;
+        shift = Long.numberOfLeadingZeros(mask);
+        threshold = maxSize(capacity);
+    }
+
+    // Linear probing stays short up to two thirds full
+    private static int maxSize(final int capacity) {
+        return (int) (2L * capacity / 3);
+    }
+}
@@ -0,0 +1,310 @@
+package com.github.ksuid40;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Radix sorts of {@code Ksuid}s held as timestamp/payload word triples, as in {@link Ksuid40Array}.
+ * <p>
+ * Ids are sorted least significant byte first over their words: the whole timestamp word, ordered as signed like
+ * {@link Ksuid40#compareTo(Ksuid40)} does, and the 16 payload bytes. A single counting pass finds the histograms of all
+ * bytes, so bytes that all ids share, such as the high timestamp bytes, cost no pass at all.
+ * Input already in order is detected by one scan, and input in time order, as ids are generated, only has the run of
+ * each second sorted by payload. The parallel sort first splits the ids by their leading timestamp bits into
+ * buckets that are then sorted independently on the common fork-join pool.
+ * <p>
+ * The optional {@code indexes} are permuted along with the ids, to sort objects by their packed ids.
+ */
+final class Ksuid40RadixSort {
+    private static final int WORDS = 3;
+    private static final int BYTES = 24;
+    private static final int RADIX = 256;
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int MAX_SIZE = (Integer.MAX_VALUE - 8) / WORDS;
+
+    // Word and shift of each byte of the big-endian words, most significant first
+    private static final int[] WORD_OF = new int[BYTES];
+    private static final int[] SHIFT_OF = new int[BYTES];
+    // Flips the sign bit of the timestamp, so negative timestamps sort first
+    private static final int[] FLIP_OF = new int[BYTES];
+
+    private static final int SORTED = 0;
+    private static final int TIME_ORDERED = 1;
+    private static final int UNORDERED = 2;
+
+    static {
+        for (int b = 0; b < BYTES; b++) {
+            WORD_OF[b] = b / Long.BYTES;
+            SHIFT_OF[b] = 56 - 8 * (b % Long.BYTES);
+        }
+        FLIP_OF[0] = 0x80;
+    }
+
+    private Ksuid40RadixSort() {
+    }
+
+    /**
+     * Sort ids into natural order.
+     *
+     * @param words word triples of the ids
+     * @param size number of ids
+     * @param indexes values to permute along with the ids, or null
+     */
+    static void sort(final long[] words, final int size, final int[] indexes) {
+        switch (order(words, size)) {
+            case SORTED:
+                return;
+            case TIME_ORDERED:
+                sortRuns(words, size, indexes);
+                return;
+            default:
+                lsd(words, 0, size, new long[size * WORDS], 0, indexes, indexes == null ? null : new int[size]);
+        }
+    }
+
+    /**
+     * Sort ids into natural order on the common fork-join pool.
+     *
+     * @param words word triples of the ids
+     * @param size number of ids
+     * @param indexes values to permute along with the ids, or null
+     */
+    static void parallelSort(final long[] words, final int size, final int[] indexes) {
+        if (size < PARALLEL_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            sort(words, size, indexes);
+            return;
+        }
+        if (order(words, size) == SORTED) {
+            return;
+        }
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < size * WORDS; i += WORDS) {
+            min = Math.min(min, words[i]);
+            max = Math.max(max, words[i]);
+        }
+        // Split on the leading bits of the time span, or of the payload if all ids share a timestamp.
+        // The span and offsets into it are unsigned, so they are exact even if max - min overflows a long.
+        final long base = max > min ? min : 0;
+        final int word = max > min ? 0 : 1;
+        final int shift = max > min ? Math.max(0, 56 - Long.numberOfLeadingZeros(max - min)) : 56;
+
+        final int chunks = ForkJoinPool.getCommonPoolParallelism() * 4;
+        final int chunkSize = (size + chunks - 1) / chunks;
+        final int[][] offsets = new int[chunks][RADIX];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            final int[] count = offsets[c];
+            for (int i = c * chunkSize, end = Math.min(size, i + chunkSize); i < end; i++) {
+                count[(int) ((words[i * WORDS + word] - base) >>> shift)]++;
+            }
+        });
+        final int[] starts = new int[RADIX + 1];
+        int sum = 0;
+        for (int d = 0; d < RADIX; d++) {
+            starts[d] = sum;
+            for (int c = 0; c < chunks; c++) {
+                final int count = offsets[c][d];
+                offsets[c][d] = sum;
+                sum += count;
+            }
+        }
+        starts[RADIX] = size;
+
+        final long[] scratch = new long[size * WORDS];
+        final int[] indexScratch = indexes == null ? null : new int[size];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            final int[] offset = offsets[c];
+            for (int i = c * chunkSize, end = Math.min(size, i + chunkSize); i < end; i++) {
+                final int s = i * WORDS;
+                final int p = offset[(int) ((words[s + word] - base) >>> shift)]++;
+                System.arraycopy(words, s, scratch, p * WORDS, WORDS);
+                if (indexes != null) {
+                    indexScratch[p] = indexes[i];
+                }
+            }
+        });
+        IntStream.range(0, RADIX).parallel().forEach(d -> {
+            final int from = starts[d];
+            final int to = starts[d + 1];
+            System.arraycopy(scratch, from * WORDS, words, from * WORDS, (to - from) * WORDS);
+            if (indexes != null) {
+                System.arraycopy(indexScratch, from, indexes, from, to - from);
+            }
+            if (to - from < INSERTION_SORT_THRESHOLD) {
+                insertionSort(words, from, to, indexes);
+            } else {
+                lsd(words, from, to, scratch, from, indexes, indexScratch);
+            }
+        });
+    }
+
+    /**
+     * Sort objects into natural order by radix sorting their packed ids.
+     *
+     * @param ksuid40s ids to sort
+     * @param parallel whether to sort on the common fork-join pool
+     */
+    static void sort(final Ksuid40[] ksuid40s, final boolean parallel) {
+        final int size = ksuid40s.length;
+        if (size > MAX_SIZE) {
+            // Too many to pack into one array of words
+            if (parallel) {
+                Arrays.parallelSort(ksuid40s);
+            } else {
+                Arrays.sort(ksuid40s);
+            }
+            return;
+        }
+        final long[] words = new long[size * WORDS];
+        final int[] indexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            words[i * WORDS] = ksuid40s[i].getTimestamp();
+            words[i * WORDS + 1] = ksuid40s[i].payloadHigh();
+            words[i * WORDS + 2] = ksuid40s[i].payloadLow();
+            indexes[i] = i;
+        }
+        if (parallel) {
+            parallelSort(words, size, indexes);
+        } else {
+            sort(words, size, indexes);
+        }
+        final Ksuid40[] unsorted = ksuid40s.clone();
+        for (int i = 0; i < size; i++) {
+            ksuid40s[i] = unsorted[indexes[i]];
+        }
+    }
+
+    /**
+     * Check in one scan whether ids are sorted, or at least in timestamp order.
+     */
+    private static int order(final long[] words, final int size) {
+        int order = SORTED;
+        for (int i = WORDS; i < size * WORDS; i += WORDS) {
+            if (words[i - WORDS] > words[i]) {
+                return UNORDERED;
+            }
+            if (order == SORTED && words[i - WORDS] == words[i]
+                    && Ksuid40.compare(words[i - WORDS], words[i - 2], words[i - 1],
+                                       words[i], words[i + 1], words[i + 2]) > 0) {
+                order = TIME_ORDERED;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Sort each run of ids sharing a timestamp, for ids already in timestamp order.
+     */
+    private static void sortRuns(final long[] words, final int size, final int[] indexes) {
+        long[] scratch = new long[0];
+        int[] indexScratch = indexes == null ? null : new int[0];
+        int to;
+        for (int from = 0; from < size; from = to) {
+            to = from + 1;
+            while (to < size && words[to * WORDS] == words[from * WORDS]) {
+                to++;
+            }
+            final int length = to - from;
+            if (length < INSERTION_SORT_THRESHOLD) {
+                insertionSort(words, from, to, indexes);
+                continue;
+            }
+            if (scratch.length < length * WORDS) {
+                scratch = new long[length * WORDS];
+                indexScratch = indexes == null ? null : new int[length];
+            }
+            lsd(words, from, to, scratch, 0, indexes, indexScratch);
+        }
+    }
+
+    /**
+     * Sort ids {@code from} (inclusive) {@code to} (exclusive) least significant byte first, skipping bytes
+     * all ids share. The scratch arrays hold the ids between passes, from {@code scratchFrom}.
+     */
+    private static void lsd(final long[] words, final int from, final int to, final long[] scratch,
+                            final int scratchFrom, final int[] indexes, final int[] indexScratch) {
+        final int size = to - from;
+        final int[][] counts = new int[BYTES][RADIX];
+        for (int i = from * WORDS; i < to * WORDS; i += WORDS) {
+            for (int b = 0; b < BYTES; b++) {
+                counts[b][((int) (words[i + WORD_OF[b]] >>> SHIFT_OF[b]) & 0xFF) ^ FLIP_OF[b]]++;
+            }
+        }
+        long[] src = words;
+        long[] dst = scratch;
+        int[] srcIndexes = indexes;
+        int[] dstIndexes = indexScratch;
+        int srcFrom = from;
+        int dstFrom = scratchFrom;
+        for (int b = BYTES - 1; b >= 0; b--) {
+            final int[] count = counts[b];
+            final int word = WORD_OF[b];
+            final int shift = SHIFT_OF[b];
+            final int flip = FLIP_OF[b];
+            if (count[((int) (src[srcFrom * WORDS + word] >>> shift) & 0xFF) ^ flip] == size) {
+                continue;
+            }
+            int sum = 0;
+            for (int d = 0; d < RADIX; d++) {
+                final int c = count[d];
+                count[d] = sum;
+                sum += c;
+            }
+            for (int k = 0; k < size; k++) {
+                final int s = (srcFrom + k) * WORDS;
+                final int p = count[((int) (src[s + word] >>> shift) & 0xFF) ^ flip]++;
+                final int q = (dstFrom + p) * WORDS;
+                dst[q] = src[s];
+                dst[q + 1] = src[s + 1];
+                dst[q + 2] = src[s + 2];
+                if (srcIndexes != null) {
+                    dstIndexes[dstFrom + p] = srcIndexes[srcFrom + k];
+                }
+            }
+            final long[] passWords = src;
+            src = dst;
+            dst = passWords;
+            final int[] passIndexes = srcIndexes;
+            srcIndexes = dstIndexes;
+            dstIndexes = passIndexes;
+            final int passFrom = srcFrom;
+            srcFrom = dstFrom;
+            dstFrom = passFrom;
+        }
+        if (src != words) {
+            System.arraycopy(src, srcFrom * WORDS, words, from * WORDS, size * WORDS);
+            if (indexes != null) {
+                System.arraycopy(srcIndexes, srcFrom, indexes, from, size);
+            }
+        }
+    }
+
+    private static void insertionSort(final long[] words, final int from, final int to, final int[] indexes) {
+        for (int index = from + 1; index < to; index++) {
+            final int i = index * WORDS;
+            final long timestamp = words[i];
+            final long payloadHigh = words[i + 1];
+            final long payloadLow = words[i + 2];
+            final int value = indexes == null ? 0 : indexes[index];
+            int j = index;
+            for (; j > from; j--) {
+                final int k = (j - 1) * WORDS;
+                if (Ksuid40.compare(words[k], words[k + 1], words[k + 2], timestamp, payloadHigh, payloadLow) <= 0) {
+                    break;
+                }
+                System.arraycopy(words, k, words, k + WORDS, WORDS);
+                if (indexes != null) {
+                    indexes[j] = indexes[j - 1];
+                }
+            }
+            words[j * WORDS] = timestamp;
+            words[j * WORDS + 1] = payloadHigh;
+            words[j * WORDS + 2] = payloadLow;
+            if (indexes != null) {
+                indexes[j] = value;
+            }
+        }
+    }
+}
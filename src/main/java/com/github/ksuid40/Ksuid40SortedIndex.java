@@ -0,0 +1,322 @@
+package com.github.ksuid40;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static com.github.ksuid40.Ksuid40.EPOCH;
+
+/**
+ * A sorted set of {@code Ksuid}s stored as primitive words in blocks, for lookups by time range.
+ * <p>
+ * Ids are held in order in blocks of up to {@value #BLOCK_SIZE} ids, each a {@code long[]} of timestamp/payload
+ * word triples, found by binary search over the blocks and then within one. Since fresh ids arrive at or near the
+ * tail, appending in order costs constant time and a slightly late id only shifts the end of the last block.
+ * A full block is split in two. Lookups and the start of a range cost O(log n), without an object per id.
+ * <p>
+ * Indexes are not thread-safe.
+ */
+public final class Ksuid40SortedIndex implements Iterable<Ksuid40> {
+    private static final int WORDS = 3;
+    private static final int BLOCK_SIZE = 1024;
+
+    private long[][] blocks = new long[4][];
+    private int[] blockSizes = new int[4];
+    private int blockCount;
+    private int size;
+    private int modCount;
+
+    /**
+     * Get the number of ids held.
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check whether no ids are held.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Add a {@code Ksuid} if it is absent.
+     *
+     * @param ksuid40 id to add
+     * @return true if the id was absent
+     */
+    public boolean add(final Ksuid40 ksuid40) {
+        final long timestamp = ksuid40.getTimestamp();
+        final long payloadHigh = ksuid40.payloadHigh();
+        final long payloadLow = ksuid40.payloadLow();
+        if (blockCount == 0) {
+            insertBlock(0, new long[BLOCK_SIZE * WORDS], 0);
+        }
+        // Ids arrive mostly in order, so try the last block before searching
+        int block = blockCount - 1;
+        if (compareLast(block, timestamp, payloadHigh, payloadLow) >= 0) {
+            block = findBlock(timestamp, payloadHigh, payloadLow);
+        }
+        int index = search(block, timestamp, payloadHigh, payloadLow);
+        if (index >= 0) {
+            return false;
+        }
+        index = -(index + 1);
+        if (blockSizes[block] == BLOCK_SIZE) {
+            if (index == BLOCK_SIZE && block == blockCount - 1) {
+                // Appending in order starts a new block rather than leaving half empty ones behind
+                insertBlock(++block, new long[BLOCK_SIZE * WORDS], 0);
+                index = 0;
+            } else {
+                split(block);
+                if (index > BLOCK_SIZE / 2) {
+                    index -= BLOCK_SIZE / 2;
+                    block++;
+                }
+            }
+        }
+        final long[] words = blocks[block];
+        final int at = index * WORDS;
+        System.arraycopy(words, at, words, at + WORDS, (blockSizes[block] - index) * WORDS);
+        words[at] = timestamp;
+        words[at + 1] = payloadHigh;
+        words[at + 2] = payloadLow;
+        blockSizes[block]++;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Check whether a {@code Ksuid} is present.
+     *
+     * @param ksuid40 id to look for
+     * @return true if the id is present
+     */
+    public boolean contains(final Ksuid40 ksuid40) {
+        if (blockCount == 0) {
+            return false;
+        }
+        final int block = findBlock(ksuid40.getTimestamp(), ksuid40.payloadHigh(), ksuid40.payloadLow());
+        return search(block, ksuid40.getTimestamp(), ksuid40.payloadHigh(), ksuid40.payloadLow()) >= 0;
+    }
+
+    /**
+     * Get the greatest {@code Ksuid} less than or equal to a given one.
+     *
+     * @param ksuid40 id to look for
+     * @return the id, or null if there is none
+     */
+    public Ksuid40 floor(final Ksuid40 ksuid40) {
+        if (blockCount == 0) {
+            return null;
+        }
+        int block = findBlock(ksuid40.getTimestamp(), ksuid40.payloadHigh(), ksuid40.payloadLow());
+        int index = search(block, ksuid40.getTimestamp(), ksuid40.payloadHigh(), ksuid40.payloadLow());
+        if (index < 0) {
+            index = -(index + 1) - 1;
+            if (index < 0) {
+                if (block == 0) {
+                    return null;
+                }
+                block--;
+                index = blockSizes[block] - 1;
+            }
+        }
+        return get(block, index);
+    }
+
+    /**
+     * Get the least {@code Ksuid} greater than or equal to a given one.
+     *
+     * @param ksuid40 id to look for
+     * @return the id, or null if there is none
+     */
+    public Ksuid40 ceiling(final Ksuid40 ksuid40) {
+        if (blockCount == 0) {
+            return null;
+        }
+        int block = findBlock(ksuid40.getTimestamp(), ksuid40.payloadHigh(), ksuid40.payloadLow());
+        int index = search(block, ksuid40.getTimestamp(), ksuid40.payloadHigh(), ksuid40.payloadLow());
+        if (index < 0) {
+            index = -(index + 1);
+            if (index == blockSizes[block]) {
+                if (block == blockCount - 1) {
+                    return null;
+                }
+                block++;
+                index = 0;
+            }
+        }
+        return get(block, index);
+    }
+
+    /**
+     * Copy the ids with a {@link Ksuid40#getInstant() time} from (inclusive) to (exclusive), in id order.
+     *
+     * @param from start of the time range
+     * @param to end of the time range
+     * @return ids in the range
+     */
+    public Ksuid40Array range(final Instant from, final Instant to) {
+        final long fromTimestamp = ceilingTimestamp(from);
+        final long toTimestamp = ceilingTimestamp(to);
+        final Ksuid40Array array = new Ksuid40Array(0);
+        if (blockCount == 0 || fromTimestamp >= toTimestamp) {
+            return array;
+        }
+        // The least id of a timestamp has an all-zero payload
+        int block = findBlock(fromTimestamp, 0, 0);
+        int index = search(block, fromTimestamp, 0, 0);
+        if (index < 0) {
+            index = -(index + 1);
+        }
+        for (; block < blockCount; block++, index = 0) {
+            final long[] words = blocks[block];
+            int end = index;
+            while (end < blockSizes[block] && words[end * WORDS] < toTimestamp) {
+                end++;
+            }
+            array.addWords(words, index * WORDS, end - index);
+            if (end < blockSizes[block]) {
+                break;
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Iterate over the ids in id order.
+     *
+     * @return iterator, failing fast if ids are added during iteration
+     */
+    @Override
+    public Iterator<Ksuid40> iterator() {
+        return new Iterator<Ksuid40>() {
+            private final int expectedModCount = modCount;
+            private int block;
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return block < blockCount && index < blockSizes[block];
+            }
+
+            @Override
+            public Ksuid40 next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final Ksuid40 ksuid40 = get(block, index);
+                if (++index == blockSizes[block]) {
+                    block++;
+                    index = 0;
+                }
+                return ksuid40;
+            }
+        };
+    }
+
+    /**
+     * Copy the ids into a new {@link Ksuid40Array}, in id order.
+     *
+     * @return ids
+     */
+    public Ksuid40Array toArray() {
+        final Ksuid40Array array = new Ksuid40Array(size);
+        for (int block = 0; block < blockCount; block++) {
+            array.addWords(blocks[block], 0, blockSizes[block]);
+        }
+        return array;
+    }
+
+    private Ksuid40 get(final int block, final int index) {
+        final long[] words = blocks[block];
+        final int i = index * WORDS;
+        return Ksuid40.fromWords(words[i], words[i + 1], words[i + 2]);
+    }
+
+    /**
+     * Find the first block whose last id is not less than a key, or the last block.
+     */
+    private int findBlock(final long timestamp, final long payloadHigh, final long payloadLow) {
+        int low = 0;
+        int high = blockCount - 1;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (compareLast(mid, timestamp, payloadHigh, payloadLow) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compareLast(final int block, final long timestamp, final long payloadHigh, final long payloadLow) {
+        if (blockSizes[block] == 0) {
+            return -1;
+        }
+        final long[] words = blocks[block];
+        final int i = (blockSizes[block] - 1) * WORDS;
+        return Ksuid40.compare(words[i], words[i + 1], words[i + 2], timestamp, payloadHigh, payloadLow);
+    }
+
+    /**
+     * Search a block for a key, as {@link Arrays#binarySearch(long[], long)} does.
+     */
+    private int search(final int block, final long timestamp, final long payloadHigh, final long payloadLow) {
+        final long[] words = blocks[block];
+        int low = 0;
+        int high = blockSizes[block] - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int i = mid * WORDS;
+            final int cmp = Ksuid40.compare(words[i], words[i + 1], words[i + 2], timestamp, payloadHigh, payloadLow);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void split(final int block) {
+        final long[] upper = new long[BLOCK_SIZE * WORDS];
+        System.arraycopy(blocks[block], BLOCK_SIZE / 2 * WORDS, upper, 0, BLOCK_SIZE / 2 * WORDS);
+        blockSizes[block] = BLOCK_SIZE / 2;
+        insertBlock(block + 1, upper, BLOCK_SIZE / 2);
+    }
+
+    private void insertBlock(final int block, final long[] words, final int blockSize) {
+        if (blockCount == blocks.length) {
+            blocks = Arrays.copyOf(blocks, blockCount * 2);
+            blockSizes = Arrays.copyOf(blockSizes, blockCount * 2);
+        }
+        System.arraycopy(blocks, block, blocks, block + 1, blockCount - block);
+        System.arraycopy(blockSizes, block, blockSizes, block + 1, blockCount - block);
+        blocks[block] = words;
+        blockSizes[block] = blockSize;
+        blockCount++;
+    }
+
+    /**
+     * The least timestamp whose time is not before an instant.
+     */
+    private static long ceilingTimestamp(final Instant instant) {
+        return instant.getEpochSecond() - EPOCH + (instant.getNano() > 0 ? 1 : 0);
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.ksuid40;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntFunction;
+
+/**
+ * Partitions {@code Ksuid}s across {@link Ksuid40HashTable} segments each guarded by its own lock,
+ * shared by {@link Ksuid40ConcurrentHashSet} and {@link Ksuid40ConcurrentHashMap}.
+ * <p>
+ * Ids are spread over the segments by their payload bits, so threads working on different ids rarely
+ * contend for the same lock. Readers of a segment share its lock, writers hold it exclusively.
+ *
+ * @param <T> type of the segments
+ */
+abstract class Ksuid40StripedTable<T extends Ksuid40HashTable> {
+    private static final int MAX_SEGMENT_BITS = 16;
+
+    final T[] segments;
+    final StampedLock[] locks;
+    private final int bits;
+
+    Ksuid40StripedTable(final int expectedSize, final int concurrencyLevel, final IntFunction<T[]> arrayFactory,
+                        final IntFunction<T> segmentFactory) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expected size is negative: " + expectedSize);
+        }
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("concurrency level is not positive: " + concurrencyLevel);
+        }
+        int segmentBits = 0;
+        while (segmentBits < MAX_SEGMENT_BITS && 1 << segmentBits < concurrencyLevel) {
+            segmentBits++;
+        }
+        bits = segmentBits;
+        segments = arrayFactory.apply(1 << bits);
+        locks = new StampedLock[segments.length];
+        final int segmentSize = (int) ((expectedSize + (long) segments.length - 1) / segments.length);
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = segmentFactory.apply(segmentSize);
+            locks[i] = new StampedLock();
+        }
+    }
+
+    // Enough stripes that threads seldom meet on one, for the common case of a few threads per core
+    static int defaultConcurrencyLevel() {
+        return 4 * Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Get the number of entries. Concurrent updates may or may not be counted.
+     *
+     * @return size
+     */
+    public int size() {
+        long size = 0;
+        for (int i = 0; i < segments.length; i++) {
+            final long stamp = locks[i].readLock();
+            try {
+                size += segments[i].size();
+            } finally {
+                locks[i].unlockRead(stamp);
+            }
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Check whether there are no entries. Concurrent updates may or may not be seen.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Remove all entries, one segment at a time.
+     */
+    public void clear() {
+        for (int i = 0; i < segments.length; i++) {
+            final long stamp = locks[i].writeLock();
+            try {
+                segments[i].clear();
+            } finally {
+                locks[i].unlockWrite(stamp);
+            }
+        }
+    }
+
+    final int segmentFor(final long timestamp, final long payloadHigh, final long payloadLow) {
+        return Ksuid40HashTable.stripe(timestamp, payloadHigh, payloadLow, bits);
+    }
+}
@@ -0,0 +1,246 @@
+package com.github.ksuid40;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ReadOnlyBufferException;
+import java.time.Instant;
+
+import static com.github.ksuid40.Base62.encode168;
+import static com.github.ksuid40.Base62.encode168Ascii;
+import static com.github.ksuid40.Ksuid40.EPOCH;
+import static com.github.ksuid40.Ksuid40.TOTAL_BYTES;
+import static com.github.ksuid40.Ksuid40.highWord;
+import static com.github.ksuid40.Ksuid40.lowWord;
+import static com.github.ksuid40.Ksuid40.middleWord;
+
+/**
+ * A reusable, mutable view of the 21 {@link Ksuid40#asBytes() bytes} of a {@code Ksuid} held in a {@link ByteBuffer}.
+ * <p>
+ * A view is positioned over a record with {@link #wrap(ByteBuffer, int)} and reads it in place, heap or direct,
+ * so large batches of records can be scanned, compared and encoded without creating a {@link Ksuid40} for each.
+ * Reads use absolute indexes and never move the buffer's position; the buffer's byte order is ignored.
+ * <p>
+ * Views are not thread-safe. Two views are equal if the records they are positioned over are equal,
+ * so a view must not be repositioned while it is held in a hash-based collection.
+ */
+public final class Ksuid40View implements Comparable<Ksuid40View> {
+    private static final int PAYLOAD_HIGH_OFFSET = 5;
+    private static final int PAYLOAD_LOW_OFFSET = PAYLOAD_HIGH_OFFSET + Ksuid40.LONG_SIZE_BYTES;
+    private static final int ENCODED_LENGTH = 29;
+
+    private ByteBuffer buffer;
+    private int offset;
+
+    /**
+     * Position this view over the record at an absolute index of a buffer.
+     *
+     * @param buffer buffer containing the record
+     * @param offset index in buffer of the first byte of the record
+     * @return this view
+     * @throws IndexOutOfBoundsException if there are fewer than 21 bytes at offset
+     */
+    public Ksuid40View wrap(final ByteBuffer buffer, final int offset) {
+        if (offset < 0 || offset > buffer.limit() - TOTAL_BYTES) {
+            throw new IndexOutOfBoundsException("no room for " + TOTAL_BYTES + " bytes at " + offset);
+        }
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    /**
+     * Get the buffer this view is positioned over.
+     *
+     * @return buffer, or null if the view has not been positioned
+     */
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * Get the index in {@link #buffer()} of the first byte of the record.
+     *
+     * @return offset
+     */
+    public int offset() {
+        return offset;
+    }
+
+    /**
+     * Get the KSUID timestamp component.
+     *
+     * @return KSUID timestamp component
+     */
+    public long getTimestamp() {
+        return (buffer.get(offset) & 0xFFL) << 32 | getInt(offset + 1) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Get the KSUID time component as an Instant.
+     *
+     * @return an Instant
+     */
+    public Instant getInstant() {
+        return Instant.ofEpochSecond(getTimestamp() + EPOCH);
+    }
+
+    /**
+     * Get the first 8 bytes of the KSUID payload component as a big-endian word.
+     *
+     * @return high payload word
+     */
+    public long getPayloadHigh() {
+        return getLong(offset + PAYLOAD_HIGH_OFFSET);
+    }
+
+    /**
+     * Get the last 8 bytes of the KSUID payload component as a big-endian word.
+     *
+     * @return low payload word
+     */
+    public long getPayloadLow() {
+        return getLong(offset + PAYLOAD_LOW_OFFSET);
+    }
+
+    /**
+     * Compare the record of this view with a {@code Ksuid}, in the order of {@link Ksuid40#compareTo(Ksuid40)}.
+     *
+     * @param other {@code Ksuid} to compare with
+     * @return a negative integer, zero, or a positive integer as this record is less than, equal to, or greater than other
+     */
+    public int compareTo(final Ksuid40 other) {
+        return Ksuid40.compare(getTimestamp(), getPayloadHigh(), getPayloadLow(),
+                               other.getTimestamp(), other.payloadHigh(), other.payloadLow());
+    }
+
+    @Override
+    public int compareTo(@SuppressWarnings("NullableProblems") final Ksuid40View other) {
+        return Ksuid40.compare(getTimestamp(), getPayloadHigh(), getPayloadLow(),
+                               other.getTimestamp(), other.getPayloadHigh(), other.getPayloadLow());
+    }
+
+    /**
+     * Check whether the record of this view holds the same value as a {@code Ksuid}.
+     *
+     * @param ksuid40 {@code Ksuid} to compare with, may be null
+     * @return true if the values are equal
+     */
+    public boolean contentEquals(final Ksuid40 ksuid40) {
+        return ksuid40 != null &&
+                getPayloadLow() == ksuid40.payloadLow() &&
+                getPayloadHigh() == ksuid40.payloadHigh() &&
+                getTimestamp() == ksuid40.getTimestamp();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Ksuid40View)) {
+            return false;
+        }
+
+        final Ksuid40View that = (Ksuid40View) o;
+
+        return this.getPayloadLow() == that.getPayloadLow() &&
+                this.getPayloadHigh() == that.getPayloadHigh() &&
+                this.getTimestamp() == that.getTimestamp();
+    }
+
+    /**
+     * Returns the hash code of the record, equal to the {@link Ksuid40#hashCode() hash code} of a {@code Ksuid}
+     * with the same value.
+     *
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return Ksuid40.hash(getTimestamp(), getPayloadHigh(), getPayloadLow());
+    }
+
+    /**
+     * Write the {@link Ksuid40#toString() string representation} of the record into a char array.
+     *
+     * @param dst destination for the 29 characters
+     * @param offset index in dst of the first character
+     * @throws IndexOutOfBoundsException if there is no room for 29 characters at offset
+     */
+    public void encodeTo(final char[] dst, final int offset) {
+        final long payloadHigh = getPayloadHigh();
+        final long payloadLow = getPayloadLow();
+        encode168(highWord(getTimestamp(), payloadHigh), middleWord(payloadHigh, payloadLow), lowWord(payloadLow),
+                  dst, offset);
+    }
+
+    /**
+     * Write the {@link Ksuid40#toString() string representation} of the record into a byte array as ASCII.
+     *
+     * @param dst destination for the 29 bytes
+     * @param offset index in dst of the first byte
+     * @throws IndexOutOfBoundsException if there is no room for 29 bytes at offset
+     */
+    public void encodeAsciiTo(final byte[] dst, final int offset) {
+        final long payloadHigh = getPayloadHigh();
+        final long payloadLow = getPayloadLow();
+        encode168Ascii(highWord(getTimestamp(), payloadHigh), middleWord(payloadHigh, payloadLow), lowWord(payloadLow),
+                       dst, offset);
+    }
+
+    /**
+     * Write the {@link Ksuid40#toString() string representation} of the record as 29 ASCII bytes
+     * at the buffer's position, advancing it.
+     *
+     * @param dst destination buffer
+     * @throws BufferOverflowException if fewer than 29 bytes remain
+     * @throws ReadOnlyBufferException if the buffer is read-only
+     */
+    public void encodeTo(final ByteBuffer dst) {
+        if (dst.remaining() < ENCODED_LENGTH) {
+            throw new BufferOverflowException();
+        }
+        if (dst.hasArray()) {
+            encodeAsciiTo(dst.array(), dst.arrayOffset() + dst.position());
+            dst.position(dst.position() + ENCODED_LENGTH);
+        } else {
+            final long payloadHigh = getPayloadHigh();
+            final long payloadLow = getPayloadLow();
+            final int position = dst.position();
+            encode168Ascii(highWord(getTimestamp(), payloadHigh), middleWord(payloadHigh, payloadLow),
+                           lowWord(payloadLow), dst, position);
+            dst.position(position + ENCODED_LENGTH);
+        }
+    }
+
+    /**
+     * Create a {@code Ksuid} with the value of the record, e.g. to keep it after the view is repositioned.
+     *
+     * @return a {@code Ksuid} with the value of the record
+     */
+    public Ksuid40 toKsuid() {
+        return Ksuid40.fromWords(getTimestamp(), getPayloadHigh(), getPayloadLow());
+    }
+
+    /**
+     * Returns the {@link Ksuid40#toString() string representation} of the record.
+     *
+     * @return a string representation of the record
+     */
+    @Override
+    public String toString() {
+        final char[] chars = new char[ENCODED_LENGTH];
+        encodeTo(chars, 0);
+        return new String(chars);
+    }
+
+    private int getInt(final int index) {
+        final int value = buffer.getInt(index);
+        return buffer.order() == ByteOrder.BIG_ENDIAN ? value : Integer.reverseBytes(value);
+    }
+
+    private long getLong(final int index) {
+        final long value = buffer.getLong(index);
+        return buffer.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value);
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.ksuid40;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * A thread-safe set of the {@code Ksuid}s seen within a sliding time window, e.g. to drop duplicate deliveries
+ * of messages identified by {@code Ksuid}s.
+ * <p>
+ * Ids are bucketed by their own {@link Ksuid40#getTimestamp() timestamp}, so expiry needs no per-entry bookkeeping:
+ * ids older than the window are rejected in constant time and whole buckets are dropped as the window slides.
+ * Ids more than one bucket ahead of the clock are rejected too. Null is not permitted.
+ */
+public final class Ksuid40WindowCache extends Ksuid40WindowTable<Ksuid40HashSet> {
+
+    /**
+     * Create a cache with buckets of a sixtieth of the window, or a second for windows of under a minute.
+     *
+     * @param window how long ids are remembered, counted from their timestamps
+     * @param maximumSize number of ids at which the oldest bucket is dropped early
+     * @throws IllegalArgumentException if window is under a second or maximumSize is not positive
+     */
+    public Ksuid40WindowCache(final Duration window, final long maximumSize) {
+        this(window, defaultBucketWidth(window), maximumSize, Clock.systemUTC());
+    }
+
+    /**
+     * Create a cache.
+     *
+     * @param window how long ids are remembered, counted from their timestamps
+     * @param bucketWidth time span of the ids in a bucket, in whole seconds
+     * @param maximumSize number of ids at which the oldest bucket is dropped early
+     * @param clock clock the window slides with
+     * @throws IllegalArgumentException if bucketWidth is not a positive number of seconds, window is shorter than
+     *                                  bucketWidth or maximumSize is not positive
+     */
+    public Ksuid40WindowCache(final Duration window, final Duration bucketWidth, final long maximumSize, final Clock clock) {
+        super(window, bucketWidth, maximumSize, clock, Ksuid40HashSet[]::new, Ksuid40HashSet::new);
+    }
+
+    /**
+     * Add a {@code Ksuid} if it is absent and within the window.
+     *
+     * @param ksuid40 id to add
+     * @return true if the id was added, false if it was seen before or is {@link #isExpired(Ksuid40) expired}
+     */
+    public boolean add(final Ksuid40 ksuid40) {
+        final long bucket = bucketOf(ksuid40);
+        if (bucket < 0) {
+            return false;
+        }
+        final int slot = slotOf(bucket);
+        final boolean claimed;
+        final boolean added;
+        final long stamp = locks[slot].writeLock();
+        try {
+            claimed = claim(slot, bucket);
+            added = claimed && buckets[slot].add(ksuid40);
+        } finally {
+            locks[slot].unlockWrite(stamp);
+        }
+        if (!claimed) {
+            // The window slid past the bucket since it was checked
+            rejected();
+        } else if (added) {
+            miss();
+            added();
+        } else {
+            hit();
+        }
+        return added;
+    }
+
+    /**
+     * Check whether a {@code Ksuid} has been seen within the window.
+     *
+     * @param ksuid40 id to look for
+     * @return true if the id is present
+     */
+    public boolean contains(final Ksuid40 ksuid40) {
+        final long bucket = bucketOf(ksuid40);
+        if (bucket < 0) {
+            return false;
+        }
+        final int slot = slotOf(bucket);
+        final boolean found;
+        final long stamp = locks[slot].readLock();
+        try {
+            found = holds(slot, bucket) && buckets[slot].contains(ksuid40);
+        } finally {
+            locks[slot].unlockRead(stamp);
+        }
+        if (found) {
+            hit();
+        } else {
+            miss();
+        }
+        return found;
+    }
+
+    /**
+     * Remove a {@code Ksuid} if it is present, e.g. when processing of a message failed and a redelivery is expected.
+     *
+     * @param ksuid40 id to remove
+     * @return true if the id was present
+     */
+    public boolean remove(final Ksuid40 ksuid40) {
+        final long bucket = bucketOf(ksuid40);
+        if (bucket < 0) {
+            return false;
+        }
+        final int slot = slotOf(bucket);
+        final boolean removed;
+        final long stamp = locks[slot].writeLock();
+        try {
+            removed = holds(slot, bucket) && buckets[slot].remove(ksuid40);
+        } finally {
+            locks[slot].unlockWrite(stamp);
+        }
+        if (removed) {
+            removed();
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,172 @@
+package com.github.ksuid40;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * A thread-safe map of the {@code Ksuid}s seen within a sliding time window to values, e.g. to keep the outcome
+ * of processing a message for answering its duplicate deliveries.
+ * <p>
+ * Expiry works as in {@link Ksuid40WindowCache}. Null keys are not permitted, null values are.
+ *
+ * @param <V> type of the values
+ */
+public final class Ksuid40WindowMap<V> extends Ksuid40WindowTable<Ksuid40HashMap<V>> {
+
+    /**
+     * Create a map with buckets of a sixtieth of the window, or a second for windows of under a minute.
+     *
+     * @param window how long ids are remembered, counted from their timestamps
+     * @param maximumSize number of entries at which the oldest bucket is dropped early
+     * @throws IllegalArgumentException if window is under a second or maximumSize is not positive
+     */
+    public Ksuid40WindowMap(final Duration window, final long maximumSize) {
+        this(window, defaultBucketWidth(window), maximumSize, Clock.systemUTC());
+    }
+
+    /**
+     * Create a map.
+     *
+     * @param window how long ids are remembered, counted from their timestamps
+     * @param bucketWidth time span of the ids in a bucket, in whole seconds
+     * @param maximumSize number of entries at which the oldest bucket is dropped early
+     * @param clock clock the window slides with
+     * @throws IllegalArgumentException if bucketWidth is not a positive number of seconds, window is shorter than
+     *                                  bucketWidth or maximumSize is not positive
+     */
+    @SuppressWarnings("unchecked")
+    public Ksuid40WindowMap(final Duration window, final Duration bucketWidth, final long maximumSize, final Clock clock) {
+        super(window, bucketWidth, maximumSize, clock, Ksuid40HashMap[]::new, Ksuid40HashMap::new);
+    }
+
+    /**
+     * Get the value mapped to a {@code Ksuid} within the window.
+     *
+     * @param key id to look for
+     * @return value, or null if the id is absent or {@link #isExpired(Ksuid40) expired}
+     */
+    public V get(final Ksuid40 key) {
+        final long bucket = bucketOf(key);
+        if (bucket < 0) {
+            return null;
+        }
+        final int slot = slotOf(bucket);
+        final boolean found;
+        final V value;
+        final long stamp = locks[slot].readLock();
+        try {
+            final int index = holds(slot, bucket) ? buckets[slot].find(key.getTimestamp(), key.payloadHigh(),
+                    key.payloadLow()) : -1;
+            found = index >= 0;
+            value = found ? buckets[slot].valueAt(index) : null;
+        } finally {
+            locks[slot].unlockRead(stamp);
+        }
+        if (found) {
+            hit();
+        } else {
+            miss();
+        }
+        return value;
+    }
+
+    /**
+     * Map a {@code Ksuid} within the window to a value if it is absent.
+     *
+     * @param key id to map
+     * @param value value to map the id to
+     * @return true if the id was mapped, false if it was present or is {@link #isExpired(Ksuid40) expired}
+     */
+    public boolean putIfAbsent(final Ksuid40 key, final V value) {
+        final long bucket = bucketOf(key);
+        if (bucket < 0) {
+            return false;
+        }
+        final int slot = slotOf(bucket);
+        final boolean claimed;
+        boolean added = false;
+        final long stamp = locks[slot].writeLock();
+        try {
+            claimed = claim(slot, bucket);
+            if (claimed && !buckets[slot].containsKey(key)) {
+                buckets[slot].put(key, value);
+                added = true;
+            }
+        } finally {
+            locks[slot].unlockWrite(stamp);
+        }
+        if (!claimed) {
+            // The window slid past the bucket since it was checked
+            rejected();
+        } else if (added) {
+            miss();
+            added();
+        } else {
+            hit();
+        }
+        return added;
+    }
+
+    /**
+     * Map a {@code Ksuid} within the window to a value, replacing any previous value.
+     *
+     * @param key id to map
+     * @param value value to map the id to
+     * @return the previous value, or null if the id was absent or is {@link #isExpired(Ksuid40) expired}
+     */
+    public V put(final Ksuid40 key, final V value) {
+        final long bucket = bucketOf(key);
+        if (bucket < 0) {
+            return null;
+        }
+        final int slot = slotOf(bucket);
+        final boolean claimed;
+        boolean added = false;
+        V previous = null;
+        final long stamp = locks[slot].writeLock();
+        try {
+            claimed = claim(slot, bucket);
+            if (claimed) {
+                added = !buckets[slot].containsKey(key);
+                previous = buckets[slot].put(key, value);
+            }
+        } finally {
+            locks[slot].unlockWrite(stamp);
+        }
+        if (!claimed) {
+            rejected();
+        } else if (added) {
+            added();
+        }
+        return previous;
+    }
+
+    /**
+     * Remove the mapping of a {@code Ksuid} if it is present.
+     *
+     * @param key id to remove
+     * @return the previous value, or null if the id was absent
+     */
+    public V remove(final Ksuid40 key) {
+        final long bucket = bucketOf(key);
+        if (bucket < 0) {
+            return null;
+        }
+        final int slot = slotOf(bucket);
+        boolean removed = false;
+        V previous = null;
+        final long stamp = locks[slot].writeLock();
+        try {
+            if (holds(slot, bucket) && buckets[slot].containsKey(key)) {
+                previous = buckets[slot].remove(key);
+                removed = true;
+            }
+        } finally {
+            locks[slot].unlockWrite(stamp);
+        }
+        if (removed) {
+            removed();
+        }
+        return previous;
+    }
+}
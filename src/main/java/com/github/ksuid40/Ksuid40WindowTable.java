@@ -0,0 +1,277 @@
+package com.github.ksuid40;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntFunction;
+
+/**
+ * Keeps {@code Ksuid}s of a sliding time window in {@link Ksuid40HashTable} buckets keyed by the ids' own timestamps,
+ * shared by {@link Ksuid40WindowCache} and {@link Ksuid40WindowMap}.
+ * <p>
+ * The buckets form a ring covering the window plus one bucket ahead of the clock, for ids from slightly fast clocks,
+ * so ids are remembered for at least the window and at most one bucket width longer.
+ * As the window slides a bucket is dropped whole and reused for a later time, so entries need neither their own
+ * expiry time nor an LRU list. When the size bound is reached the oldest bucket is dropped early, shrinking the window.
+ * Each bucket is guarded by its own lock.
+ *
+ * @param <T> type of the buckets
+ */
+abstract class Ksuid40WindowTable<T extends Ksuid40HashTable> {
+    private static final int DEFAULT_BUCKETS = 60;
+
+    final T[] buckets;
+    final StampedLock[] locks;
+
+    private final long[] bucketIds;
+    private final IntFunction<T> bucketFactory;
+    private final Clock clock;
+    private final long bucketSeconds;
+    private final int windowBuckets;
+    private final long maximumSize;
+
+    private final AtomicLong size = new AtomicLong();
+    private final AtomicLong sweptBucket = new AtomicLong(Long.MIN_VALUE);
+    // Buckets below this have been dropped early to keep within the size bound
+    private final AtomicLong floorBucket = new AtomicLong(Long.MIN_VALUE);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    Ksuid40WindowTable(final Duration window, final Duration bucketWidth, final long maximumSize, final Clock clock,
+                       final IntFunction<T[]> arrayFactory, final IntFunction<T> bucketFactory) {
+        if (bucketWidth.getSeconds() < 1 || bucketWidth.getNano() != 0) {
+            throw new IllegalArgumentException("bucket width is not a positive number of seconds: " + bucketWidth);
+        }
+        if (window.compareTo(bucketWidth) < 0) {
+            throw new IllegalArgumentException("window is shorter than bucket width: " + window);
+        }
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximum size is not positive: " + maximumSize);
+        }
+        this.clock = clock;
+        this.bucketSeconds = bucketWidth.getSeconds();
+        // One more bucket than the window spans, as the current bucket is only partly elapsed
+        this.windowBuckets = Math.toIntExact((window.getSeconds() + bucketSeconds - 1) / bucketSeconds + 1);
+        this.maximumSize = maximumSize;
+        this.bucketFactory = bucketFactory;
+        final int ring = windowBuckets + 1;
+        buckets = arrayFactory.apply(ring);
+        locks = new StampedLock[ring];
+        bucketIds = new long[ring];
+        for (int i = 0; i < ring; i++) {
+            buckets[i] = bucketFactory.apply(0);
+            locks[i] = new StampedLock();
+            bucketIds[i] = Long.MIN_VALUE;
+        }
+    }
+
+    // About DEFAULT_BUCKETS buckets, so a window slides in small steps without a bucket per second of long windows
+    static Duration defaultBucketWidth(final Duration window) {
+        return Duration.ofSeconds(Math.max(1, window.getSeconds() / DEFAULT_BUCKETS));
+    }
+
+    /**
+     * Get the number of entries. Concurrent updates may or may not be counted.
+     *
+     * @return size
+     */
+    public long size() {
+        return size.get();
+    }
+
+    /**
+     * Get the number of lookups that found an entry, including adds of ids already present.
+     *
+     * @return hit count
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups that found no entry, including adds of new ids.
+     *
+     * @return miss count
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of ids rejected for being outside of the window.
+     *
+     * @return rejection count
+     */
+    public long rejectionCount() {
+        return rejections.sum();
+    }
+
+    /**
+     * Get the ratio of hits to lookups.
+     *
+     * @return hit rate, or 0 if there have been no lookups
+     */
+    public double hitRate() {
+        final long hitCount = hits.sum();
+        final long lookups = hitCount + misses.sum();
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * Check whether a {@code Ksuid} is outside of the window, in which case it is neither stored nor found.
+     *
+     * @param ksuid40 id to check
+     * @return true if the id is too old, or too far ahead of the clock
+     */
+    public boolean isExpired(final Ksuid40 ksuid40) {
+        final long bucket = ksuid40.getTimestamp() / bucketSeconds;
+        final long now = currentBucket();
+        return bucket < Math.max(now - windowBuckets + 1, floorBucket.get()) || bucket > now + 1;
+    }
+
+    /**
+     * Drop the buckets that have left the window. This also happens as the cache is used.
+     */
+    public void evictExpired() {
+        sweep(currentBucket(), true);
+    }
+
+    /**
+     * Find the bucket of a {@code Ksuid}, rejecting ids outside of the window.
+     *
+     * @return bucket id, or -1 if rejected
+     */
+    final long bucketOf(final Ksuid40 ksuid40) {
+        final long now = currentBucket();
+        sweep(now, false);
+        final long bucket = ksuid40.getTimestamp() / bucketSeconds;
+        if (bucket < Math.max(now - windowBuckets + 1, floorBucket.get()) || bucket > now + 1) {
+            rejected();
+            return -1;
+        }
+        return bucket;
+    }
+
+    final int slotOf(final long bucket) {
+        return (int) (bucket % buckets.length);
+    }
+
+    /**
+     * Check, under the slot's lock, whether the slot holds a bucket.
+     */
+    final boolean holds(final int slot, final long bucket) {
+        return bucketIds[slot] == bucket;
+    }
+
+    /**
+     * Prepare, under the slot's write lock, the slot to hold a bucket, dropping the earlier bucket it holds.
+     *
+     * @return false if the slot already holds a later bucket, as the window slid meanwhile
+     */
+    final boolean claim(final int slot, final long bucket) {
+        final long held = bucketIds[slot];
+        if (held == bucket) {
+            return true;
+        }
+        if (held > bucket) {
+            return false;
+        }
+        drop(slot);
+        bucketIds[slot] = bucket;
+        return true;
+    }
+
+    final void hit() {
+        hits.increment();
+    }
+
+    final void miss() {
+        misses.increment();
+    }
+
+    final void rejected() {
+        rejections.increment();
+    }
+
+    final void added() {
+        if (size.incrementAndGet() > maximumSize) {
+            dropOldest();
+        }
+    }
+
+    final void removed() {
+        size.decrementAndGet();
+    }
+
+    private long currentBucket() {
+        return Math.floorDiv(clock.millis(), 1000) / bucketSeconds;
+    }
+
+    /**
+     * Drop expired buckets, at most once per bucket width unless forced.
+     */
+    private void sweep(final long now, final boolean force) {
+        final long swept = sweptBucket.get();
+        if (!force && (swept >= now || !sweptBucket.compareAndSet(swept, now))) {
+            return;
+        }
+        final long oldest = Math.max(now - windowBuckets + 1, floorBucket.get());
+        for (int slot = 0; slot < buckets.length; slot++) {
+            final long stamp = locks[slot].writeLock();
+            try {
+                if (bucketIds[slot] < oldest) {
+                    drop(slot);
+                }
+            } finally {
+                locks[slot].unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Drop the oldest bucket holding entries and stop accepting ids older than the bucket after it,
+     * or than the current bucket if that is the oldest, so that current ids are still accepted.
+     */
+    private void dropOldest() {
+        final long now = currentBucket();
+        int oldestSlot = -1;
+        long oldest = Long.MAX_VALUE;
+        for (int slot = 0; slot < buckets.length; slot++) {
+            final long stamp = locks[slot].readLock();
+            try {
+                if (bucketIds[slot] < oldest && !buckets[slot].isEmpty()) {
+                    oldest = bucketIds[slot];
+                    oldestSlot = slot;
+                }
+            } finally {
+                locks[slot].unlockRead(stamp);
+            }
+        }
+        if (oldestSlot < 0) {
+            return;
+        }
+        floorBucket.accumulateAndGet(Math.min(oldest + 1, now), Math::max);
+        final long stamp = locks[oldestSlot].writeLock();
+        try {
+            if (bucketIds[oldestSlot] == oldest) {
+                drop(oldestSlot);
+            }
+        } finally {
+            locks[oldestSlot].unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Drop, under the slot's write lock, the bucket the slot holds, releasing its memory.
+     */
+    private void drop(final int slot) {
+        if (!buckets[slot].isEmpty()) {
+            size.addAndGet(-buckets[slot].size());
+            buckets[slot] = bucketFactory.apply(0);
+        }
+        bucketIds[slot] = Long.MIN_VALUE;
+    }
+}
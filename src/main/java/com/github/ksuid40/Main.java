@@ -5,7 +5,6 @@ import java.io.PrintStream;
 import java.io.UncheckedIOException;
 import java.security.SecureRandom;
 import java.time.Clock;
-import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -69,14 +68,10 @@ public final class Main {
         final Consumer<Ksuid40> printer = printers.get(flags.format);
 
         final List<Ksuid40> ksuid40s = new ArrayList<>();
-        final Ksuid40Generator ksuid40Generator = new Ksuid40Generator(random);
+        final Ksuid40Generator ksuid40Generator = new Ksuid40Generator(random).withClock(clock);
         if (flags.positionalArguments.isEmpty()) {
             IntStream.range(0, flags.count)
-                    .forEach(any -> {
-                        final Instant now = Instant.now(clock);
-                        final Ksuid40 ksuid40 = ksuid40Generator.newKsuid(now);
-                        ksuid40s.add(ksuid40);
-                    });
+                    .forEach(any -> ksuid40s.add(ksuid40Generator.newKsuid()));
         }
 
         flags.positionalArguments.forEach(arg -> ksuid40s.add(parse(arg)));
@@ -90,11 +85,8 @@ public final class Main {
     }
 
     private Ksuid40 parse(final String arg) {
-        try {
-            return Ksuid40.fromString(arg);
-        } catch (final IllegalArgumentException e) {
-            throw new CliException("Error when parsing \"" + arg + "\": Valid encoded KSUIDs are 27 characters");
-        }
+        return Ksuid40.tryParse(arg).orElseThrow(() ->
+                new CliException("Error when parsing \"" + arg + "\": Valid encoded KSUIDs are 27 characters"));
     }
 
     private void parseFlags(final String... args) {
@@ -185,11 +177,19 @@ public final class Main {
     }
 
     private void printPayload(final Ksuid40 ksuid40) {
-        printByteArray(ksuid40.getPayload());
+        try {
+            ksuid40.writePayloadTo(printStream);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     private void printRaw(final Ksuid40 ksuid40) {
-        printByteArray(ksuid40.asRaw());
+        try {
+            ksuid40.writeRawTo(printStream);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     private void printTemplate(final Ksuid40 ksuid40) {
@@ -202,14 +202,6 @@ public final class Main {
         printStream.println(result);
     }
 
-    private void printByteArray(final String hexBytes) {
-        try {
-            printStream.write(Hex.hexDecode(hexBytes));
-        } catch (final IOException e) {
-            throw new UncheckedIOException(e);
-        }
-    }
-
     private static class Flags {
         private int count = 1;
         private String format = "string";
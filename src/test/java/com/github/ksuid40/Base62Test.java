@@ -8,8 +8,11 @@ import org.junit.jupiter.params.provider.MethodSource;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.AbstractMap.SimpleEntry;
+import java.util.Arrays;
 import java.util.Map.Entry;
 import java.util.Random;
 import java.util.stream.Stream;
@@ -111,6 +114,65 @@ public class Base62Test {
         });
     }
 
+    @Test
+    public void indexOfInvalidCharacters() {
+        assertThrows(IllegalArgumentException.class, () -> Base62.indexOf('-'));
+        assertThrows(IllegalArgumentException.class, () -> Base62.indexOf('\u00e9'));
+        assertThrows(IllegalArgumentException.class, () -> Base62.indexOf('\u0130'));
+    }
+
+    @ParameterizedTest
+    @MethodSource("rawByteProvider")
+    public void decode168AtOffset(final Entry<byte[], String> entry) {
+        final byte[] bytes = new byte[23];
+        assertThat(decode168("x" + entry.getValue() + "x", 1, entry.getValue().length() + 1, bytes, 2)).isNotNegative();
+        final byte[] expected = new byte[23];
+        System.arraycopy(entry.getKey(), 0, expected, 3, entry.getKey().length);
+        assertThat(bytes).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @MethodSource("rawByteProvider")
+    public void decode168Ascii(final Entry<byte[], String> entry) {
+        final byte[] ascii = entry.getValue().getBytes(StandardCharsets.US_ASCII);
+        final byte[] expected = new byte[21];
+        System.arraycopy(entry.getKey(), 0, expected, 1, 20);
+
+        final byte[] bytes = new byte[21];
+        assertThat(Base62.decode168Ascii(ascii, 0, ascii.length, bytes, 0)).isNotNegative();
+        assertThat(bytes).isEqualTo(expected);
+
+        final byte[] fromBuffer = new byte[21];
+        assertThat(Base62.decode168Ascii(ByteBuffer.wrap(ascii), 0, ascii.length, fromBuffer, 0)).isNotNegative();
+        assertThat(fromBuffer).isEqualTo(expected);
+    }
+
+    @Test
+    public void decode168Overflow() {
+        final byte[] bytes = new byte[21];
+        assertThat(decode168("zzzzzzzzzzzzzzzzzzzzzzzzzzzzz", 0, 29, bytes, 0)).isEqualTo(OVERFLOW);
+        assertThat(bytes).isEqualTo(new byte[21]);
+        assertThrows(IllegalArgumentException.class, () -> decode168("zzzzzzzzzzzzzzzzzzzzzzzzzzzzz-", 0, 30, bytes, 0));
+    }
+
+    @Test
+    public void tryDecode168() {
+        final byte[] bytes = new byte[21];
+        assertThat(Base62.tryDecode168("zzzzzzzzzzzzzzzzzzzzzzzzzzzzz", 0, 29, bytes, 0)).isEqualTo(OVERFLOW);
+        assertThat(Base62.tryDecode168("zzzzzzzzzzzzzzzzzzzzzzzzzzzzz-", 0, 30, bytes, 0)).isEqualTo(INVALID);
+        assertThat(Base62.tryDecode168("01-AB*ab", 0, 8, bytes, 0)).isEqualTo(INVALID);
+        assertThat(Base62.tryDecode168("01\u00e9AB", 0, 5, bytes, 0)).isEqualTo(INVALID);
+        assertThat(bytes).isEqualTo(new byte[21]);
+        assertThat(Base62.tryDecode168("zzzzzzzzzzzzzzzzzzzzzzzzzzzz", 0, 28, null, 0)).isEqualTo(0x693CA4BC848149L);
+    }
+
+    @Test
+    public void decodeBeyond168Bits() {
+        final String s = "1zzzzzzzzzzzzzzzzzzzzzzzzzzzzz";
+        assertThat(base62Decode(s)).isEqualTo(new BigInteger(1, base62Decode(s)).toByteArray());
+        assertThat(base62Encode(base62Decode(s))).isEqualTo(s);
+    }
+
     @ParameterizedTest
     @MethodSource("rawByteProvider")
     public void encodeDecode(final Entry<byte[], String> entry) {
@@ -118,14 +180,86 @@ public class Base62Test {
         assertThat(base62Decode(base62Encode(entry.getKey(), entry.getValue().length() + 4))).isEqualTo(entry.getKey());
     }
     
+    @Test
+    public void encode168MatchesBigIntegerEncoding() {
+        final Random random = new Random(42L);
+        range(0, 10_000).forEach(i -> {
+            final byte[] bytes = new byte[21];
+            random.nextBytes(bytes);
+            final char[] chars = new char[ENCODED_168_BIT_LENGTH + 2];
+            encode168(word(bytes, 0), word(bytes, 7), word(bytes, 14), chars, 1);
+            assertThat(new String(chars, 1, ENCODED_168_BIT_LENGTH)).isEqualTo(bigIntegerEncode(bytes, ENCODED_168_BIT_LENGTH));
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource("rawByteProvider")
+    public void encode168Ascii(final Entry<byte[], String> entry) {
+        final byte[] bytes = new byte[21];
+        System.arraycopy(entry.getKey(), 0, bytes, 1, 20);
+        final byte[] ascii = new byte[ENCODED_168_BIT_LENGTH];
+        Base62.encode168Ascii(word(bytes, 0), word(bytes, 7), word(bytes, 14), ascii, 0);
+        assertThat(new String(ascii, StandardCharsets.US_ASCII)).isEqualTo("00" + entry.getValue());
+    }
+
+    @Test
+    public void encode168Extremes() {
+        final char[] chars = new char[ENCODED_168_BIT_LENGTH];
+        encode168(0, 0, 0, chars, 0);
+        assertThat(new String(chars)).isEqualTo("00000000000000000000000000000");
+        encode168(0xFFFFFFFFFFFFFFL, 0xFFFFFFFFFFFFFFL, 0xFFFFFFFFFFFFFFL, chars, 0);
+        assertThat(new String(chars)).isEqualTo(bigIntegerEncode(filled(21, (byte) 0xFF), ENCODED_168_BIT_LENGTH));
+    }
+
+    @Test
+    public void encodeShortInputsMatchesBigIntegerEncoding() {
+        final Random random = new Random(7L);
+        range(0, 22).forEach(size -> range(-1, 33).forEach(length -> {
+            final byte[] bytes = new byte[size];
+            random.nextBytes(bytes);
+            assertThat(base62Encode(bytes, length)).isEqualTo(bigIntegerEncode(bytes, length));
+            assertThat(base62Encode(new byte[size], length)).isEqualTo(bigIntegerEncode(new byte[size], length));
+        }));
+    }
+
     @Test
     public void testBase62EncodeUnsigned() {
         final Random random = new Random();
         random.setSeed(123L);
+        // Skip the payload generators once drew to check themselves, keeping the expected encoding
+        random.nextBytes(new byte[16]);
 
         final Instant timestamp = Instant.parse("2083-01-27T08:18:32.577Z");
         final Ksuid40 ksuid40 = new Ksuid40Generator(random).newKsuid(timestamp);
         final byte[] ksuidBytes = ksuid40.asBytes();
         assertThat(Base62.base62Encode(ksuidBytes, 27)).isEqualTo("ULUyOmRbtzUsdIObKkJUTWQwB06");
     }
+
+    private static long word(final byte[] bytes, final int offset) {
+        long word = 0;
+        for (int i = offset; i < offset + 7; i++) {
+            word = (word << 8) | (bytes[i] & 0xFF);
+        }
+        return word;
+    }
+
+    private static byte[] filled(final int size, final byte value) {
+        final byte[] bytes = new byte[size];
+        Arrays.fill(bytes, value);
+        return bytes;
+    }
+
+    private static String bigIntegerEncode(final byte[] bytes, final int length) {
+        final StringBuilder sb = new StringBuilder();
+        BigInteger value = new BigInteger(1, bytes);
+        while (value.signum() > 0) {
+            final BigInteger[] quotientAndRemainder = value.divideAndRemainder(BASE);
+            sb.append(BASE_62_CHARACTERS[quotientAndRemainder[1].intValue()]);
+            value = quotientAndRemainder[0];
+        }
+        while (length > 0 && sb.length() < length) {
+            sb.append('0');
+        }
+        return sb.reverse().toString();
+    }
 }
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -64,4 +66,47 @@ public class HexTest {
     public void hexEncodeNull() {
         assertThat(Hex.hexEncode(null)).isNull();
     }
+
+    @Test
+    public void hexEncodeAllByteValues() {
+        final byte[] bytes = new byte[256];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        final String hex = Hex.hexEncode(bytes);
+        for (int i = 0; i < bytes.length; i++) {
+            assertThat(hex.substring(2 * i, 2 * i + 2)).isEqualTo(String.format("%02X", i));
+        }
+        assertThat(Hex.hexDecode(hex)).isEqualTo(bytes);
+        assertThat(Hex.hexDecode(hex.toLowerCase())).isEqualTo(bytes);
+    }
+
+    @Test
+    public void hexEncodeIntoArrays() {
+        final byte[] bytes = PLAIN_TEXT.getBytes();
+        final char[] chars = new char[HEX.length() + 2];
+        Hex.hexEncode(bytes, 0, bytes.length, chars, 1);
+        assertThat(new String(chars, 1, HEX.length())).isEqualTo(HEX);
+        final byte[] ascii = new byte[HEX.length() - 2];
+        Hex.hexEncodeAscii(bytes, 1, bytes.length - 1, ascii, 0);
+        assertThat(new String(ascii, StandardCharsets.US_ASCII)).isEqualTo(HEX.substring(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> Hex.hexEncode(bytes, 0, bytes.length, chars, 3));
+    }
+
+    @Test
+    public void hexEncodeLong() {
+        final char[] chars = new char[10];
+        Hex.hexEncode(0x1234567890ABCDEFL, 5, chars, 0);
+        assertThat(chars).isEqualTo("7890ABCDEF".toCharArray());
+        assertThrows(IndexOutOfBoundsException.class, () -> Hex.hexEncode(0, 6, chars, 0));
+    }
+
+    @Test
+    public void hexDecodeRange() {
+        final byte[] bytes = new byte[PLAIN_TEXT.length() + 1];
+        Hex.hexDecode("x" + HEX + "x", 1, HEX.length() + 1, bytes, 1);
+        assertThat(Arrays.copyOfRange(bytes, 1, bytes.length)).isEqualTo(PLAIN_TEXT.getBytes());
+        assertThrows(IllegalArgumentException.class, () -> Hex.hexDecode("0\u0130", 0, 2, bytes, 0));
+        assertThrows(IllegalArgumentException.class, () -> Hex.hexDecode("0G", 0, 2, bytes, 0));
+    }
 }
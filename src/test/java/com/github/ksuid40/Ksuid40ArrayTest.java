@@ -0,0 +1,186 @@
+package com.github.ksuid40;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+public class Ksuid40ArrayTest {
+    private static final Ksuid40Generator GENERATOR = new Ksuid40Generator(new Random(1));
+
+    private static Ksuid40[] randomKsuids(final int count, final int timestamps) {
+        final Random random = new Random(2);
+        return IntStream.range(0, count)
+                        .mapToObj(i -> GENERATOR.newKsuid(Instant.ofEpochSecond(1_600_000_000L + random.nextInt(timestamps))))
+                        .toArray(Ksuid40[]::new);
+    }
+
+    @Test
+    public void addAndGet() {
+        final Ksuid40[] ksuid40s = randomKsuids(100, 10);
+        final Ksuid40Array array = new Ksuid40Array(0);
+        assertThat(array.isEmpty()).isTrue();
+        for (final Ksuid40 ksuid40 : ksuid40s) {
+            array.add(ksuid40);
+        }
+        assertThat(array.size()).isEqualTo(100);
+        assertThat(array.isEmpty()).isFalse();
+        final char[] chars = new char[29];
+        for (int i = 0; i < ksuid40s.length; i++) {
+            assertThat(array.get(i)).isEqualTo(ksuid40s[i]);
+            assertThat(array.getTimestamp(i)).isEqualTo(ksuid40s[i].getTimestamp());
+            assertThat(array.getPayloadHigh(i)).isEqualTo(ksuid40s[i].payloadHigh());
+            assertThat(array.getPayloadLow(i)).isEqualTo(ksuid40s[i].payloadLow());
+            array.encodeTo(i, chars, 0);
+            assertThat(new String(chars)).isEqualTo(ksuid40s[i].toString());
+        }
+        assertThat(array.toArray()).containsExactly(ksuid40s);
+        array.clear();
+        assertThat(array.size()).isZero();
+    }
+
+    @Test
+    public void addView() {
+        final Ksuid40 ksuid40 = Ksuid40.newKsuid();
+        final Ksuid40Array array = new Ksuid40Array();
+        array.add(new Ksuid40View().wrap(ByteBuffer.wrap(ksuid40.asBytes()), 0));
+        assertThat(array.get(0)).isEqualTo(ksuid40);
+    }
+
+    @Test
+    public void indexOutOfBounds() {
+        final Ksuid40Array array = Ksuid40Array.fromArray(Ksuid40.newKsuid());
+        assertThatCode(() -> array.get(1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatCode(() -> array.getTimestamp(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatCode(() -> array.encodeTo(0, new char[28], 0)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatCode(() -> new Ksuid40Array(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void sort() {
+        for (final int timestamps : new int[] {1, 5, 1000}) {
+            final Ksuid40[] ksuid40s = randomKsuids(5000, timestamps);
+            final Ksuid40Array array = Ksuid40Array.fromArray(ksuid40s);
+            array.sort();
+            Arrays.sort(ksuid40s);
+            assertThat(array.toArray()).containsExactly(ksuid40s);
+        }
+    }
+
+    @Test
+    public void sortWithDuplicates() {
+        final Ksuid40[] distinct = randomKsuids(3, 1);
+        final Ksuid40[] ksuid40s = IntStream.range(0, 3000).mapToObj(i -> distinct[i % 3]).toArray(Ksuid40[]::new);
+        final Ksuid40Array array = Ksuid40Array.fromArray(ksuid40s);
+        array.sort();
+        Arrays.sort(ksuid40s);
+        assertThat(array.toArray()).containsExactly(ksuid40s);
+    }
+
+    @Test
+    public void sortTimeOrdered() {
+        final Ksuid40[] ksuid40s = randomKsuids(20000, 200);
+        Arrays.sort(ksuid40s, Comparator.comparingLong(Ksuid40::getTimestamp));
+        final Ksuid40Array array = Ksuid40Array.fromArray(ksuid40s);
+        array.sort();
+        Arrays.sort(ksuid40s);
+        assertThat(array.toArray()).containsExactly(ksuid40s);
+        array.sort();
+        assertThat(array.toArray()).containsExactly(ksuid40s);
+    }
+
+    @Test
+    public void parallelSort() {
+        for (final int timestamps : new int[] {1, 5, 1_000_000}) {
+            final Ksuid40[] ksuid40s = randomKsuids(100_000, timestamps);
+            final Ksuid40Array array = Ksuid40Array.fromArray(ksuid40s);
+            array.parallelSort();
+            Arrays.sort(ksuid40s);
+            assertThat(array.toArray()).containsExactly(ksuid40s);
+        }
+    }
+
+    @Test
+    public void sortAnyTimestamp() {
+        final long[] timestamps = {0, 1L << 40, -1, 1L << 39, Long.MIN_VALUE, Long.MAX_VALUE, 1_600_000_000L};
+        final Random random = new Random(3);
+        for (final int count : new int[] {5_000, 100_000}) {
+            final Ksuid40[] ksuid40s = IntStream.range(0, count).mapToObj(i -> {
+                final byte[] payload = new byte[Ksuid40.PAYLOAD_BYTES];
+                random.nextBytes(payload);
+                return Ksuid40.newBuilder().withTimestamp(timestamps[random.nextInt(timestamps.length)]).withPayload(payload).build();
+            }).toArray(Ksuid40[]::new);
+            final Ksuid40Array array = Ksuid40Array.fromArray(ksuid40s);
+            final Ksuid40Array parallelArray = Ksuid40Array.fromArray(ksuid40s);
+            array.sort();
+            parallelArray.parallelSort();
+            Arrays.sort(ksuid40s);
+            assertThat(array.toArray()).containsExactly(ksuid40s);
+            assertThat(parallelArray.toArray()).containsExactly(ksuid40s);
+        }
+    }
+
+    @Test
+    public void sortObjects() {
+        final Ksuid40[] ksuid40s = randomKsuids(100_000, 1000);
+        final Ksuid40[] expected = ksuid40s.clone();
+        Arrays.sort(expected);
+        final Ksuid40[] sorted = ksuid40s.clone();
+        Ksuid40Array.sort(sorted);
+        assertThat(sorted).containsExactly(expected);
+        Ksuid40Array.parallelSort(ksuid40s);
+        assertThat(ksuid40s).containsExactly(expected);
+        // The objects themselves are reordered, not copies
+        final Set<Ksuid40> originals = Collections.newSetFromMap(new IdentityHashMap<>());
+        originals.addAll(Arrays.asList(expected));
+        assertThat(ksuid40s).allMatch(originals::contains);
+    }
+
+    @Test
+    public void binarySearch() {
+        final Ksuid40[] ksuid40s = randomKsuids(1000, 50);
+        Arrays.sort(ksuid40s);
+        final Ksuid40Array array = Ksuid40Array.fromArray(ksuid40s);
+        for (int i = 0; i < ksuid40s.length; i++) {
+            assertThat(array.binarySearch(ksuid40s[i])).isEqualTo(i);
+        }
+        for (final Ksuid40 missing : randomKsuids(100, 60)) {
+            if (Arrays.binarySearch(ksuid40s, missing) < 0) {
+                assertThat(array.binarySearch(missing)).isEqualTo(Arrays.binarySearch(ksuid40s, missing));
+            }
+        }
+        assertThat(new Ksuid40Array().binarySearch(ksuid40s[0])).isEqualTo(-1);
+    }
+
+    @Test
+    public void binarySearchTimestamp() {
+        final Ksuid40[] ksuid40s = randomKsuids(1000, 50);
+        Arrays.sort(ksuid40s);
+        final Ksuid40Array array = Ksuid40Array.fromArray(ksuid40s);
+        for (long timestamp = 1_600_000_000L - 1; timestamp <= 1_600_000_000L + 50; timestamp++) {
+            int first = 0;
+            while (first < ksuid40s.length && ksuid40s[first].getTimestamp() < timestamp) {
+                first++;
+            }
+            final boolean found = first < ksuid40s.length && ksuid40s[first].getTimestamp() == timestamp;
+            assertThat(array.binarySearchTimestamp(timestamp)).isEqualTo(found ? first : -(first + 1));
+        }
+    }
+
+    @Test
+    public void collector() {
+        final Ksuid40[] ksuid40s = randomKsuids(10000, 100);
+        assertThat(Arrays.stream(ksuid40s).collect(Ksuid40Array.collector()).toArray()).containsExactly(ksuid40s);
+        assertThat(Arrays.stream(ksuid40s).parallel().collect(Ksuid40Array.collector()).toArray()).containsExactly(ksuid40s);
+    }
+}
@@ -0,0 +1,175 @@
+package com.github.ksuid40;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+public class Ksuid40BloomFilterTest {
+    private static final Instant START = Instant.ofEpochSecond(1_600_000_000L);
+    private static final Ksuid40Generator GENERATOR = new Ksuid40Generator(new Random(7));
+
+    private static List<Ksuid40> ksuids(final int count, final Instant instant) {
+        return IntStream.range(0, count).mapToObj(i -> GENERATOR.newKsuid(instant)).collect(Collectors.toList());
+    }
+
+    @Test
+    public void sizing() {
+        final Ksuid40BloomFilter filter = new Ksuid40BloomFilter(Duration.ofMinutes(1), Duration.ofSeconds(10), 1000, 0.01,
+                                                                 new Ksuid40WindowCacheTest.MutableClock(START));
+        // 9586 bits for 1% rounded up to a power of two
+        assertThat(filter.bitsPerBucket()).isEqualTo(16384);
+        assertThat(filter.hashCount()).isEqualTo(11);
+    }
+
+    @Test
+    public void putAndMightContain() {
+        final Ksuid40BloomFilter filter = new Ksuid40BloomFilter(Duration.ofMinutes(1), Duration.ofSeconds(10), 10000, 0.01,
+                                                                 new Ksuid40WindowCacheTest.MutableClock(START));
+        final List<Ksuid40> inserted = ksuids(10000, START.minusSeconds(30));
+        for (final Ksuid40 ksuid40 : inserted) {
+            filter.put(ksuid40);
+        }
+        assertThat(inserted).allMatch(filter::mightContain);
+        assertThat(filter.put(inserted.get(0))).isFalse();
+
+        final long falsePositives = ksuids(10000, START.minusSeconds(30)).stream().filter(filter::mightContain).count();
+        assertThat(falsePositives).isLessThan(100);
+        // Other buckets are not consulted
+        assertThat(ksuids(1000, START.minusSeconds(10))).noneMatch(filter::mightContain);
+    }
+
+    @Test
+    public void rejectsIdsOutsideOfWindow() {
+        final Ksuid40WindowCacheTest.MutableClock clock = new Ksuid40WindowCacheTest.MutableClock(START);
+        final Ksuid40BloomFilter filter = new Ksuid40BloomFilter(Duration.ofMinutes(1), Duration.ofSeconds(10), 100, 0.01, clock);
+        final Ksuid40 old = GENERATOR.newKsuid(START.minusSeconds(75));
+        final Ksuid40 future = GENERATOR.newKsuid(START.plusSeconds(20));
+        assertThat(filter.isExpired(old)).isTrue();
+        assertThat(filter.put(old)).isFalse();
+        assertThat(filter.mightContain(old)).isFalse();
+        assertThat(filter.isExpired(future)).isTrue();
+        assertThat(filter.put(future)).isFalse();
+    }
+
+    @Test
+    public void clearsBucketsAsWindowSlides() {
+        final Ksuid40WindowCacheTest.MutableClock clock = new Ksuid40WindowCacheTest.MutableClock(START);
+        final Ksuid40BloomFilter filter = new Ksuid40BloomFilter(Duration.ofSeconds(30), Duration.ofSeconds(10), 100, 0.01, clock);
+        final List<Ksuid40> first = ksuids(100, START);
+        first.forEach(filter::put);
+        assertThat(first).allMatch(filter::mightContain);
+
+        clock.advance(Duration.ofSeconds(50));
+        assertThat(first).allMatch(filter::isExpired);
+        assertThat(first).noneMatch(filter::mightContain);
+
+        // The slot of the expired bucket is cleared before reuse
+        final Instant later = START.plusSeconds(50);
+        final List<Ksuid40> second = ksuids(100, later);
+        assertThat(filter.put(second.get(0))).isTrue();
+        final long stale = first.stream()
+                                .map(k -> Ksuid40.newBuilder().withTimestamp(later.getEpochSecond()).withPayload(Hex.hexDecode(k.getPayload())).build())
+                                .filter(filter::mightContain)
+                                .count();
+        assertThat(stale).isZero();
+    }
+
+    @Test
+    public void concurrentPuts() throws Exception {
+        final Instant now = Instant.now();
+        final List<Ksuid40> ksuid40s = ksuids(20000, now);
+        final Ksuid40BloomFilter filter = new Ksuid40BloomFilter(Duration.ofMinutes(1), Duration.ofSeconds(10), 20000, 0.0001,
+                                                                 Clock.systemUTC());
+        final AtomicInteger added = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = IntStream.range(0, 4).mapToObj(t -> executor.submit(() -> {
+                for (final Ksuid40 ksuid40 : ksuid40s) {
+                    if (filter.put(ksuid40)) {
+                        added.incrementAndGet();
+                    }
+                }
+            })).collect(Collectors.toList());
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // Racing puts of one id may both set bits, and a few ids may be false positives
+        assertThat(added.get()).isGreaterThanOrEqualTo(ksuid40s.size() - 10);
+        assertThat(ksuid40s).allMatch(filter::mightContain);
+    }
+
+    @Test
+    public void snapshotAndRestore(@TempDir final Path dir) throws IOException {
+        final Ksuid40WindowCacheTest.MutableClock clock = new Ksuid40WindowCacheTest.MutableClock(START);
+        final Ksuid40BloomFilter filter = new Ksuid40BloomFilter(Duration.ofMinutes(1), Duration.ofSeconds(10), 20000, 0.01, clock);
+        final List<Ksuid40> inserted = ksuids(20000, START.minusSeconds(20));
+        inserted.forEach(filter::put);
+        final Path file = dir.resolve("filter.bin");
+        filter.writeTo(file);
+
+        final Ksuid40BloomFilter restored = Ksuid40BloomFilter.readFrom(file, clock);
+        assertThat(restored.bitsPerBucket()).isEqualTo(filter.bitsPerBucket());
+        assertThat(restored.hashCount()).isEqualTo(filter.hashCount());
+        assertThat(inserted).allMatch(restored::mightContain);
+        final List<Ksuid40> absent = ksuids(1000, START.minusSeconds(20));
+        assertThat(absent.stream().filter(restored::mightContain).count())
+                .isEqualTo(absent.stream().filter(filter::mightContain).count());
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertThat(files).containsExactly(file);
+        }
+
+        final byte[] snapshot = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(snapshot, snapshot.length + 8));
+        assertThatCode(() -> Ksuid40BloomFilter.readFrom(file, clock)).isInstanceOf(IOException.class);
+        Files.write(file, Arrays.copyOf(snapshot, snapshot.length - 8));
+        assertThatCode(() -> Ksuid40BloomFilter.readFrom(file, clock)).isInstanceOf(IOException.class);
+        // A window of 2^31 - 2 buckets would take far more memory than the file holds
+        final ByteBuffer header = ByteBuffer.wrap(snapshot.clone());
+        header.putInt(16, Integer.MAX_VALUE - 1);
+        Files.write(file, header.array());
+        assertThatCode(() -> Ksuid40BloomFilter.readFrom(file, clock)).isInstanceOf(IOException.class);
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24});
+        assertThatCode(() -> Ksuid40BloomFilter.readFrom(file, clock)).isInstanceOf(IOException.class);
+        Files.write(file, new byte[] {1, 2, 3});
+        assertThatCode(() -> Ksuid40BloomFilter.readFrom(file, clock)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void invalidArguments() {
+        final Clock clock = Clock.systemUTC();
+        assertThatCode(() -> new Ksuid40BloomFilter(Duration.ofMinutes(1), Duration.ofSeconds(10), 0, 0.01, clock))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatCode(() -> new Ksuid40BloomFilter(Duration.ofMinutes(1), Duration.ofSeconds(10), 100, 1, clock))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatCode(() -> new Ksuid40BloomFilter(Duration.ofMinutes(1), Duration.ofSeconds(10), 100, Double.NaN, clock))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatCode(() -> new Ksuid40BloomFilter(Duration.ofMinutes(1), Duration.ofSeconds(10), Long.MAX_VALUE / 100, 0.01, clock))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatCode(() -> new Ksuid40BloomFilter(Duration.ofSeconds(5), Duration.ofSeconds(10), 100, 0.01, clock))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
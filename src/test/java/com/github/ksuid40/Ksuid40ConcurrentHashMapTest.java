@@ -0,0 +1,64 @@
+package com.github.ksuid40;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class Ksuid40ConcurrentHashMapTest {
+
+    @Test
+    public void putGetRemove() {
+        final Ksuid40 ksuid40 = Ksuid40.newKsuid();
+        final Ksuid40ConcurrentHashMap<String> map = new Ksuid40ConcurrentHashMap<>();
+        assertThat(map.put(ksuid40, "a")).isNull();
+        assertThat(map.put(ksuid40, "b")).isEqualTo("a");
+        assertThat(map.get(ksuid40)).isEqualTo("b");
+        assertThat(map.containsKey(ksuid40)).isTrue();
+        assertThat(map.computeIfAbsent(ksuid40, k -> "c")).isEqualTo("b");
+        assertThat(map.remove(ksuid40)).isEqualTo("b");
+        assertThat(map.get(ksuid40)).isNull();
+        assertThat(map.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void concurrentComputeIfAbsent() throws Exception {
+        final List<Ksuid40> ksuid40s = IntStream.range(0, 20000).mapToObj(i -> Ksuid40.newKsuid()).collect(Collectors.toList());
+        final Ksuid40ConcurrentHashMap<Integer> map = new Ksuid40ConcurrentHashMap<>(ksuid40s.size(), 8);
+        final AtomicInteger computed = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = IntStream.range(0, 4).mapToObj(t -> executor.submit(() -> {
+                for (int i = 0; i < ksuid40s.size(); i++) {
+                    final int value = i;
+                    assertThat(map.computeIfAbsent(ksuid40s.get(i), k -> {
+                        computed.incrementAndGet();
+                        return value;
+                    })).isEqualTo(i);
+                }
+            })).collect(Collectors.toList());
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(computed.get()).isEqualTo(ksuid40s.size());
+        assertThat(map.size()).isEqualTo(ksuid40s.size());
+        final Map<Ksuid40, Integer> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertThat(iterated).hasSize(ksuid40s.size());
+        assertThat(iterated.get(ksuid40s.get(7))).isEqualTo(7);
+        map.clear();
+        assertThat(map.isEmpty()).isTrue();
+    }
+}
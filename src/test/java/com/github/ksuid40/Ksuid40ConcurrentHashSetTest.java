@@ -0,0 +1,69 @@
+package com.github.ksuid40;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+public class Ksuid40ConcurrentHashSetTest {
+
+    @Test
+    public void addContainsRemove() {
+        final Ksuid40 ksuid40 = Ksuid40.newKsuid();
+        final Ksuid40ConcurrentHashSet set = new Ksuid40ConcurrentHashSet();
+        assertThat(set.isEmpty()).isTrue();
+        assertThat(set.add(ksuid40)).isTrue();
+        assertThat(set.add(ksuid40)).isFalse();
+        assertThat(set.contains(ksuid40)).isTrue();
+        assertThat(set.size()).isEqualTo(1);
+        assertThat(set.remove(ksuid40)).isTrue();
+        assertThat(set.contains(ksuid40)).isFalse();
+        assertThat(set.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void concurrentAddsAreSeenOnce() throws Exception {
+        final List<Ksuid40> ksuid40s = IntStream.range(0, 20000).mapToObj(i -> Ksuid40.newKsuid()).collect(Collectors.toList());
+        final Ksuid40ConcurrentHashSet set = new Ksuid40ConcurrentHashSet(0, 8);
+        final AtomicInteger added = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = IntStream.range(0, 4).mapToObj(t -> executor.submit(() -> {
+                for (final Ksuid40 ksuid40 : ksuid40s) {
+                    if (set.add(ksuid40)) {
+                        added.incrementAndGet();
+                    }
+                    assertThat(set.contains(ksuid40)).isTrue();
+                }
+            })).collect(Collectors.toList());
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(added.get()).isEqualTo(ksuid40s.size());
+        assertThat(set.size()).isEqualTo(ksuid40s.size());
+        final Set<Ksuid40> iterated = new HashSet<>();
+        set.forEach(iterated::add);
+        assertThat(iterated).containsExactlyInAnyOrderElementsOf(ksuid40s);
+        set.clear();
+        assertThat(set.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void invalidArguments() {
+        assertThatCode(() -> new Ksuid40ConcurrentHashSet(-1, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatCode(() -> new Ksuid40ConcurrentHashSet(0, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
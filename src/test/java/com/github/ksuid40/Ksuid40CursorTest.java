@@ -0,0 +1,119 @@
+package com.github.ksuid40;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+public class Ksuid40CursorTest {
+    private static final Ksuid40Generator GENERATOR = new Ksuid40Generator(new Random(1));
+    private static final Ksuid40[] POOL = IntStream.range(0, 200)
+                                                   .mapToObj(i -> GENERATOR.newKsuid(Instant.ofEpochSecond(1_600_000_000L + i % 20)))
+                                                   .sorted()
+                                                   .toArray(Ksuid40[]::new);
+
+    // Sorted ids drawn from a shared pool, so that inputs overlap and hold duplicates
+    private static List<Ksuid40> sortedKsuids(final Random random, final int count) {
+        return IntStream.range(0, count)
+                        .mapToObj(i -> POOL[random.nextInt(POOL.length)])
+                        .sorted()
+                        .collect(Collectors.toList());
+    }
+
+    private static List<Ksuid40> toList(final Ksuid40Cursor cursor) {
+        final List<Ksuid40> list = new ArrayList<>();
+        cursor.toIterator().forEachRemaining(list::add);
+        assertThat(cursor.next()).isFalse();
+        return list;
+    }
+
+    @Test
+    public void sources() {
+        final List<Ksuid40> ksuid40s = sortedKsuids(new Random(2), 50);
+        assertThat(toList(Ksuid40Cursor.of(ksuid40s.iterator()))).isEqualTo(ksuid40s);
+        assertThat(toList(Ksuid40Cursor.of(Ksuid40Array.fromArray(ksuid40s.toArray(new Ksuid40[0])))))
+                .isEqualTo(ksuid40s);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(3 + ksuid40s.size() * 21);
+        buffer.put(new byte[3]);
+        ksuid40s.forEach(k -> buffer.put(k.asBytes()));
+        buffer.flip().position(3);
+        assertThat(toList(Ksuid40Cursor.of(buffer))).isEqualTo(ksuid40s);
+        assertThat(buffer.position()).isEqualTo(3);
+        buffer.limit(buffer.limit() - 1);
+        assertThatCode(() -> Ksuid40Cursor.of(buffer)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void merge() {
+        final Random random = new Random(3);
+        for (final int k : new int[] {0, 1, 2, 3, 5, 8, 13}) {
+            final List<Ksuid40> expected = new ArrayList<>();
+            final Ksuid40Cursor[] cursors = new Ksuid40Cursor[k];
+            for (int i = 0; i < k; i++) {
+                final List<Ksuid40> input = sortedKsuids(random, random.nextInt(40));
+                expected.addAll(input);
+                cursors[i] = Ksuid40Cursor.of(input.iterator());
+            }
+            Collections.sort(expected);
+            assertThat(toList(Ksuid40Cursor.merge(cursors))).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void union() {
+        final Random random = new Random(4);
+        final List<Ksuid40> first = sortedKsuids(random, 100);
+        final List<Ksuid40> second = sortedKsuids(random, 100);
+        final TreeSet<Ksuid40> expected = new TreeSet<>(first);
+        expected.addAll(second);
+        assertThat(toList(Ksuid40Cursor.union(Ksuid40Cursor.of(first.iterator()), Ksuid40Cursor.of(second.iterator()))))
+                .containsExactlyElementsOf(expected);
+        assertThat(toList(Ksuid40Cursor.distinct(Ksuid40Cursor.of(first.iterator()))))
+                .containsExactlyElementsOf(new TreeSet<>(first));
+    }
+
+    @Test
+    public void intersectionAndDifference() {
+        final Random random = new Random(5);
+        for (int run = 0; run < 20; run++) {
+            final List<Ksuid40> first = sortedKsuids(random, random.nextInt(150));
+            final List<Ksuid40> second = sortedKsuids(random, random.nextInt(150));
+            final List<Ksuid40> intersection = new ArrayList<>();
+            final List<Ksuid40> difference = new ArrayList<>();
+            final List<Ksuid40> unmatched = new ArrayList<>(second);
+            for (final Ksuid40 ksuid40 : first) {
+                (unmatched.remove(ksuid40) ? intersection : difference).add(ksuid40);
+            }
+            assertThat(toList(Ksuid40Cursor.intersection(Ksuid40Cursor.of(first.iterator()),
+                                                         Ksuid40Cursor.of(second.iterator()))))
+                    .isEqualTo(intersection);
+            assertThat(toList(Ksuid40Cursor.difference(Ksuid40Cursor.of(first.iterator()),
+                                                       Ksuid40Cursor.of(second.iterator()))))
+                    .isEqualTo(difference);
+        }
+    }
+
+    @Test
+    public void composes() {
+        final Ksuid40Array array = Ksuid40Array.fromArray(POOL);
+        final Ksuid40Cursor odd = Ksuid40Cursor.of(IntStream.range(0, POOL.length).filter(i -> i % 2 == 1)
+                                                            .mapToObj(i -> POOL[i]).iterator());
+        final Ksuid40Cursor cursor = Ksuid40Cursor.difference(
+                Ksuid40Cursor.union(Ksuid40Cursor.of(array), Ksuid40Cursor.of(array)), odd);
+        assertThat(toList(cursor)).isEqualTo(IntStream.range(0, POOL.length).filter(i -> i % 2 == 0)
+                                                      .mapToObj(i -> POOL[i]).collect(Collectors.toList()));
+        assertThat(toList(Ksuid40Cursor.merge())).isEmpty();
+        assertThat(Arrays.asList(POOL)).isSorted();
+    }
+}
@@ -5,8 +5,24 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.security.SecureRandom;
+import java.time.Clock;
 import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static java.time.Instant.now;
@@ -65,4 +81,183 @@ public class Ksuid40GeneratorTest {
     public void testGenerate() {
         assertThat(Ksuid40Generator.generate()).matches("[0-9a-zA-Z]{29}");
     }
+
+    @Test
+    public void threadRandomsAreSeededIndependently() {
+        final byte[] first = new byte[16];
+        final byte[] second = new byte[16];
+        Ksuid40Generator.newThreadRandom().nextBytes(first);
+        Ksuid40Generator.newThreadRandom().nextBytes(second);
+        assertThat(first).isNotEqualTo(second);
+    }
+
+    @Test
+    public void newKsuidFromManyThreads() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<List<Ksuid40>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> IntStream.range(0, 10_000)
+                                                           .mapToObj(j -> Ksuid40.newKsuid())
+                                                           .collect(Collectors.toList())));
+            }
+            final Set<Ksuid40> ksuid40s = new HashSet<>();
+            for (final Future<List<Ksuid40>> future : futures) {
+                ksuid40s.addAll(future.get());
+            }
+            assertThat(ksuid40s).hasSize(80_000);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void bufferedMatchesUnbuffered() {
+        final Ksuid40Generator buffered = new Ksuid40Generator(new Random(1), 64);
+        final Ksuid40Generator unbuffered = new Ksuid40Generator(new Random(1));
+        final Instant instant = now();
+        for (int i = 0; i < 100; i++) {
+            assertThat(buffered.newKsuid(instant)).isEqualTo(unbuffered.newKsuid(instant));
+        }
+    }
+
+    @Test
+    public void bufferedWipesPayloads() {
+        final List<byte[]> buffers = new ArrayList<>();
+        final Random random = new Random(2) {
+            @Override
+            public void nextBytes(final byte[] bytes) {
+                super.nextBytes(bytes);
+                buffers.add(bytes);
+            }
+        };
+        final Ksuid40Generator generator = new Ksuid40Generator(random, 64);
+        assertThat(buffers).isEmpty();
+        for (int i = 0; i < 4; i++) {
+            generator.newKsuid();
+        }
+        assertThat(buffers).hasSize(1);
+        assertThat(buffers.get(0)).containsOnly(0);
+        generator.newKsuid();
+        assertThat(buffers).hasSize(2);
+        assertThat(Arrays.copyOfRange(buffers.get(1), 0, 16)).containsOnly(0);
+        assertThat(Arrays.copyOfRange(buffers.get(1), 16, 64)).isNotEqualTo(new byte[48]);
+    }
+
+    @ParameterizedTest
+    @MethodSource("inCorrectSizeProvider")
+    public void constructWithBufferOfIncorrectSize(final int incorrectSize) {
+        assertThatCode(() -> new Ksuid40Generator(new Random(), incorrectSize))
+                .isExactlyInstanceOf(IllegalArgumentException.class)
+                .hasMessage("bufferSize must be a positive multiple of 16");
+    }
+
+    @Test
+    public void payloadSource() {
+        final Ksuid40Generator.PayloadSource counting = (dst, offset) -> {
+            for (int i = 0; i < 16; i++) {
+                dst[offset + i] = (byte) i;
+            }
+        };
+        final Ksuid40 ksuid40 = new Ksuid40Generator(counting).newKsuid(Instant.ofEpochSecond(1_600_000_000L));
+        assertThat(ksuid40.getPayload()).isEqualTo("000102030405060708090A0B0C0D0E0F");
+        assertThat(ksuid40.getTimestamp()).isEqualTo(1_600_000_000L);
+
+        final byte[] dst = new byte[20];
+        Ksuid40Generator.PayloadSource.of(new Random(3)).fill(dst, 2);
+        assertThat(Arrays.copyOfRange(dst, 18, 20)).containsOnly(0);
+        assertThat(Arrays.copyOfRange(dst, 2, 18)).isNotEqualTo(new byte[16]);
+    }
+
+    @Test
+    public void payloadSourceGeneratingKsuids() {
+        final Ksuid40Generator inner = new Ksuid40Generator(new Random(8));
+        final Ksuid40Generator.PayloadSource nested = (dst, offset) -> {
+            Arrays.fill(dst, offset, offset + 16, (byte) 7);
+            inner.newKsuid();
+        };
+        final Ksuid40 ksuid40 = new Ksuid40Generator(nested).newKsuid(Instant.ofEpochSecond(1_600_000_000L));
+        assertThat(ksuid40.getPayload()).isEqualTo("07070707070707070707070707070707");
+    }
+
+    @Test
+    public void randomIsNotDrawnFromUntilUsed() {
+        final Random random = new Random() {
+            @Override
+            public void nextBytes(final byte[] bytes) {
+                throw new AssertionError("drawn from");
+            }
+        };
+        assertThatCode(() -> new Ksuid40Generator(random)).doesNotThrowAnyException();
+        assertThatCode(() -> new Ksuid40Generator(random, 64)).doesNotThrowAnyException();
+    }
+
+    @Test
+    public void supplierOfIncorrectSizeLater() {
+        final int[] calls = {0};
+        final Ksuid40Generator generator = new Ksuid40Generator(() -> new byte[calls[0]++ == 0 ? 16 : 8]);
+        assertThatCode(generator::newKsuid).isExactlyInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void newKsuidFromEpochSecond() {
+        final Ksuid40Generator generator = new Ksuid40Generator(new Random(4));
+        final Ksuid40 ksuid40 = generator.newKsuid(1_600_000_000L);
+        assertThat(ksuid40.getInstant()).isEqualTo(Instant.ofEpochSecond(1_600_000_000L));
+        assertThat(new Ksuid40Generator(new Random(4)).newKsuid(Instant.ofEpochSecond(1_600_000_000L, 999_999_999)))
+                .isEqualTo(ksuid40);
+    }
+
+    @Test
+    public void withClock() {
+        final Instant instant = Instant.parse("2022-02-09T06:27:52.573Z");
+        final Clock clock = Clock.fixed(instant, ZoneOffset.UTC);
+        final Ksuid40Generator generator = new Ksuid40Generator(new Random(5)).withClock(clock);
+        final Ksuid40Generator expected = new Ksuid40Generator(new Random(5));
+        for (int i = 0; i < 3; i++) {
+            assertThat(generator.newKsuid()).isEqualTo(expected.newKsuid(instant));
+        }
+        assertThat(generator.newKsuid().getInstant()).isEqualTo(instant.truncatedTo(SECONDS));
+    }
+
+    @Test
+    public void newKsuids() {
+        final Instant instant = Instant.parse("2022-02-09T06:27:52.573Z");
+        final Clock clock = Clock.fixed(instant, ZoneOffset.UTC);
+        final Ksuid40Generator generator = new Ksuid40Generator(new Random(6)).withClock(clock);
+        final Ksuid40Generator expected = new Ksuid40Generator(new Random(6)).withClock(clock);
+        final Ksuid40[] ksuid40s = generator.newKsuids(1000);
+        for (final Ksuid40 ksuid40 : ksuid40s) {
+            assertThat(ksuid40).isEqualTo(expected.newKsuid());
+        }
+        assertThat(generator.newKsuids(0)).isEmpty();
+        assertThatCode(() -> generator.newKsuids(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void fillBuffer() {
+        final Clock clock = Clock.fixed(Instant.parse("2022-02-09T06:27:52.573Z"), ZoneOffset.UTC);
+        final Ksuid40Generator generator = new Ksuid40Generator(new Random(7)).withClock(clock);
+        final Ksuid40Generator expected = new Ksuid40Generator(new Random(7)).withClock(clock);
+        for (final ByteBuffer buffer : new ByteBuffer[] {ByteBuffer.allocate(2 + 300 * 21),
+                ByteBuffer.allocateDirect(2 + 300 * 21).order(ByteOrder.LITTLE_ENDIAN)}) {
+            buffer.position(2);
+            generator.fill(buffer, 300);
+            assertThat(buffer.position()).isEqualTo(2 + 300 * 21);
+            final Ksuid40View view = new Ksuid40View();
+            for (int i = 0; i < 300; i++) {
+                assertThat(view.wrap(buffer, 2 + i * 21).toKsuid()).isEqualTo(expected.newKsuid());
+            }
+            buffer.position(2);
+            assertThatCode(() -> generator.fill(buffer, 301)).isInstanceOf(BufferOverflowException.class);
+            assertThat(buffer.position()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void parallelNewKsuids() {
+        final Ksuid40[] ksuid40s = Ksuid40Generator.parallelNewKsuids(10_000);
+        assertThat(new HashSet<>(Arrays.asList(ksuid40s))).hasSize(10_000);
+        assertThat(Ksuid40Generator.parallelNewKsuids(0)).isEmpty();
+    }
 }
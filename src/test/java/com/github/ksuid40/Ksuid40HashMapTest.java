@@ -0,0 +1,110 @@
+package com.github.ksuid40;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class Ksuid40HashMapTest {
+
+    @Test
+    public void putGetRemove() {
+        final Ksuid40 ksuid40 = Ksuid40.newKsuid();
+        final Ksuid40HashMap<String> map = new Ksuid40HashMap<>();
+        assertThat(map.get(ksuid40)).isNull();
+        assertThat(map.put(ksuid40, "a")).isNull();
+        assertThat(map.put(ksuid40, "b")).isEqualTo("a");
+        assertThat(map.get(ksuid40)).isEqualTo("b");
+        assertThat(map.get(new Ksuid40View().wrap(ByteBuffer.wrap(ksuid40.asBytes()), 0))).isEqualTo("b");
+        assertThat(map.containsKey(ksuid40)).isTrue();
+        assertThat(map.size()).isEqualTo(1);
+        assertThat(map.remove(ksuid40)).isEqualTo("b");
+        assertThat(map.remove(ksuid40)).isNull();
+        assertThat(map.containsKey(ksuid40)).isFalse();
+        assertThat(map.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void nullValues() {
+        final Ksuid40 ksuid40 = Ksuid40.newKsuid();
+        final Ksuid40HashMap<String> map = new Ksuid40HashMap<>();
+        assertThat(map.put(ksuid40, null)).isNull();
+        assertThat(map.containsKey(ksuid40)).isTrue();
+        assertThat(map.get(ksuid40)).isNull();
+    }
+
+    @Test
+    public void computeIfAbsent() {
+        final Ksuid40 ksuid40 = Ksuid40.newKsuid();
+        final Ksuid40HashMap<List<String>> map = new Ksuid40HashMap<>();
+        map.computeIfAbsent(ksuid40, k -> new ArrayList<>()).add("a");
+        map.computeIfAbsent(ksuid40, k -> new ArrayList<>()).add("b");
+        assertThat(map.get(ksuid40)).containsExactly("a", "b");
+        assertThat(map.computeIfAbsent(Ksuid40.newKsuid(), k -> new ArrayList<>())).isEmpty();
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void computeIfAbsentNull() {
+        final Ksuid40 ksuid40 = Ksuid40.newKsuid();
+        final Ksuid40HashMap<String> map = new Ksuid40HashMap<>();
+        assertThat(map.computeIfAbsent(ksuid40, k -> null)).isNull();
+        assertThat(map.containsKey(ksuid40)).isFalse();
+        assertThat(map.size()).isZero();
+        assertThat(map.computeIfAbsent(ksuid40, k -> "a")).isEqualTo("a");
+        assertThat(map.get(ksuid40)).isEqualTo("a");
+    }
+
+    @Test
+    public void computeIfAbsentReplacesNullValue() {
+        final Ksuid40 ksuid40 = Ksuid40.newKsuid();
+        final Ksuid40HashMap<String> map = new Ksuid40HashMap<>();
+        map.put(ksuid40, null);
+        assertThat(map.computeIfAbsent(ksuid40, k -> null)).isNull();
+        assertThat(map.containsKey(ksuid40)).isTrue();
+        assertThat(map.computeIfAbsent(ksuid40, k -> "a")).isEqualTo("a");
+        assertThat(map.get(ksuid40)).isEqualTo("a");
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void matchesHashMap() {
+        final Random random = new Random(4);
+        final Ksuid40Generator generator = new Ksuid40Generator(() -> {
+            final byte[] payload = new byte[Ksuid40.PAYLOAD_BYTES];
+            payload[15] = (byte) random.nextInt(64);
+            return payload;
+        });
+        final List<Ksuid40> pool = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            pool.add(generator.newKsuid(Instant.ofEpochSecond(random.nextInt(16))));
+        }
+        final Ksuid40HashMap<Integer> map = new Ksuid40HashMap<>(10);
+        final Map<Ksuid40, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 50000; i++) {
+            final Ksuid40 ksuid40 = pool.get(random.nextInt(pool.size()));
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(ksuid40)).isEqualTo(expected.remove(ksuid40));
+            } else {
+                assertThat(map.put(ksuid40, i)).isEqualTo(expected.put(ksuid40, i));
+            }
+            assertThat(map.size()).isEqualTo(expected.size());
+        }
+        for (final Ksuid40 ksuid40 : pool) {
+            assertThat(map.get(ksuid40)).isEqualTo(expected.get(ksuid40));
+        }
+        final Map<Ksuid40, Integer> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertThat(iterated).isEqualTo(expected);
+        map.clear();
+        assertThat(map.isEmpty()).isTrue();
+        assertThat(map.get(pool.get(0))).isNull();
+    }
+}
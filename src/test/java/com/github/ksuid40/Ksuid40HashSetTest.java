@@ -0,0 +1,132 @@
+package com.github.ksuid40;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+public class Ksuid40HashSetTest {
+
+    @Test
+    public void addContainsRemove() {
+        final Ksuid40 ksuid40 = Ksuid40.newKsuid();
+        final Ksuid40HashSet set = new Ksuid40HashSet();
+        assertThat(set.isEmpty()).isTrue();
+        assertThat(set.contains(ksuid40)).isFalse();
+        assertThat(set.add(ksuid40)).isTrue();
+        assertThat(set.add(Ksuid40.fromString(ksuid40.toString()))).isFalse();
+        assertThat(set.contains(ksuid40)).isTrue();
+        assertThat(set.contains(new Ksuid40View().wrap(ByteBuffer.wrap(ksuid40.asBytes()), 0))).isTrue();
+        assertThat(set.size()).isEqualTo(1);
+        assertThat(set.remove(ksuid40)).isTrue();
+        assertThat(set.remove(ksuid40)).isFalse();
+        assertThat(set.isEmpty()).isTrue();
+        assertThat(set.add(new Ksuid40View().wrap(ByteBuffer.wrap(ksuid40.asBytes()), 0))).isTrue();
+        assertThat(set.contains(ksuid40)).isTrue();
+    }
+
+    @Test
+    public void anyTimestamp() {
+        final Ksuid40HashSet set = new Ksuid40HashSet();
+        final List<Ksuid40> ksuid40s = new ArrayList<>();
+        for (final long timestamp : new long[] {-1, Long.MIN_VALUE, Long.MAX_VALUE, 0, 1L << 40}) {
+            for (int i = 0; i < 10; i++) {
+                ksuid40s.add(Ksuid40.newBuilder().withTimestamp(timestamp).withPayload(payload(i)).build());
+            }
+        }
+        ksuid40s.forEach(k -> assertThat(set.add(k)).isTrue());
+        assertThat(set.size()).isEqualTo(ksuid40s.size());
+        assertThat(ksuid40s).allMatch(set::contains);
+        assertThat(set.contains(Ksuid40.newBuilder().withTimestamp(-1).withPayload(payload(10)).build())).isFalse();
+        ksuid40s.forEach(k -> assertThat(set.remove(k)).isTrue());
+        assertThat(set.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void matchesHashSet() {
+        // Few timestamps and payloads sharing bits, to exercise long probe runs
+        final Random random = new Random(3);
+        final Ksuid40Generator generator = new Ksuid40Generator(() -> {
+            final byte[] payload = new byte[Ksuid40.PAYLOAD_BYTES];
+            payload[15] = (byte) random.nextInt(64);
+            payload[0] = (byte) random.nextInt(4);
+            return payload;
+        });
+        final List<Ksuid40> pool = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            pool.add(generator.newKsuid(Instant.ofEpochSecond(random.nextInt(8))));
+        }
+        final Ksuid40HashSet set = new Ksuid40HashSet();
+        final Set<Ksuid40> expected = new HashSet<>();
+        for (int i = 0; i < 50000; i++) {
+            final Ksuid40 ksuid40 = pool.get(random.nextInt(pool.size()));
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertThat(set.remove(ksuid40)).isEqualTo(expected.remove(ksuid40));
+                    break;
+                default:
+                    assertThat(set.add(ksuid40)).isEqualTo(expected.add(ksuid40));
+            }
+            assertThat(set.size()).isEqualTo(expected.size());
+        }
+        for (final Ksuid40 ksuid40 : pool) {
+            assertThat(set.contains(ksuid40)).isEqualTo(expected.contains(ksuid40));
+        }
+        final Set<Ksuid40> iterated = new HashSet<>();
+        set.forEach(iterated::add);
+        assertThat(iterated).isEqualTo(expected);
+        assertThat(set.toArray().toArray()).containsExactlyInAnyOrderElementsOf(expected);
+        set.clear();
+        assertThat(set.size()).isZero();
+        assertThat(set.contains(pool.get(0))).isFalse();
+    }
+
+    @Test
+    public void grows() {
+        final Ksuid40HashSet set = new Ksuid40HashSet(1);
+        final List<Ksuid40> ksuid40s = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            final Ksuid40 ksuid40 = Ksuid40.newKsuid();
+            ksuid40s.add(ksuid40);
+            set.add(ksuid40);
+        }
+        assertThat(set.size()).isEqualTo(10000);
+        assertThat(ksuid40s).allMatch(set::contains);
+    }
+
+    @Test
+    public void addingPresentIdsDoesNotGrow() {
+        final Ksuid40HashSet set = new Ksuid40HashSet(1);
+        final List<Ksuid40> ksuid40s = new ArrayList<>();
+        // Fill the smallest table up to its threshold
+        for (int i = 0; i < 5; i++) {
+            ksuid40s.add(Ksuid40.newKsuid());
+        }
+        ksuid40s.forEach(set::add);
+        assertThat(set.capacity()).isEqualTo(8);
+        ksuid40s.forEach(ksuid40 -> assertThat(set.add(ksuid40)).isFalse());
+        assertThat(set.capacity()).isEqualTo(8);
+        set.add(Ksuid40.newKsuid());
+        assertThat(set.capacity()).isEqualTo(16);
+    }
+
+    @Test
+    public void invalidExpectedSize() {
+        assertThatCode(() -> new Ksuid40HashSet(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatCode(() -> new Ksuid40HashSet(Integer.MAX_VALUE)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static byte[] payload(final int value) {
+        final byte[] payload = new byte[16];
+        payload[15] = (byte) value;
+        return payload;
+    }
+}
@@ -0,0 +1,134 @@
+package com.github.ksuid40;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+public class Ksuid40SortedIndexTest {
+    private static final Ksuid40Generator GENERATOR = new Ksuid40Generator(new Random(1));
+    private static final long START = 1_600_000_000L;
+
+    private static List<Ksuid40> randomKsuids(final int count, final int timestamps) {
+        final Random random = new Random(2);
+        return IntStream.range(0, count)
+                        .mapToObj(i -> GENERATOR.newKsuid(Instant.ofEpochSecond(START + random.nextInt(timestamps))))
+                        .collect(Collectors.toList());
+    }
+
+    private static List<Ksuid40> toList(final Iterable<Ksuid40> iterable) {
+        final List<Ksuid40> list = new ArrayList<>();
+        iterable.forEach(list::add);
+        return list;
+    }
+
+    @Test
+    public void empty() {
+        final Ksuid40SortedIndex index = new Ksuid40SortedIndex();
+        final Ksuid40 ksuid40 = Ksuid40.newKsuid();
+        assertThat(index.isEmpty()).isTrue();
+        assertThat(index.contains(ksuid40)).isFalse();
+        assertThat(index.floor(ksuid40)).isNull();
+        assertThat(index.ceiling(ksuid40)).isNull();
+        assertThat(index.range(Instant.EPOCH, Instant.MAX).size()).isZero();
+        assertThat(index.iterator().hasNext()).isFalse();
+    }
+
+    @Test
+    public void randomOrder() {
+        final List<Ksuid40> ksuid40s = randomKsuids(10_000, 1_000);
+        final Ksuid40SortedIndex index = new Ksuid40SortedIndex();
+        final TreeSet<Ksuid40> expected = new TreeSet<>();
+        for (final Ksuid40 ksuid40 : ksuid40s) {
+            assertThat(index.add(ksuid40)).isEqualTo(expected.add(ksuid40));
+        }
+        assertThat(index.add(ksuid40s.get(0))).isFalse();
+        assertThat(index.size()).isEqualTo(expected.size());
+        assertThat(toList(index)).containsExactlyElementsOf(expected);
+        assertThat(index.toArray().toArray()).containsExactlyElementsOf(expected);
+        for (final Ksuid40 ksuid40 : ksuid40s) {
+            assertThat(index.contains(ksuid40)).isTrue();
+        }
+    }
+
+    @Test
+    public void mostlyOrdered() {
+        final List<Ksuid40> ksuid40s = randomKsuids(5_000, 100_000);
+        ksuid40s.sort(null);
+        // Swap neighbours now and then, as ids from several hosts arrive slightly out of order
+        final Random random = new Random(3);
+        for (int i = 1; i < ksuid40s.size(); i++) {
+            if (random.nextInt(10) == 0) {
+                ksuid40s.set(i - 1, ksuid40s.set(i, ksuid40s.get(i - 1)));
+            }
+        }
+        final Ksuid40SortedIndex index = new Ksuid40SortedIndex();
+        ksuid40s.forEach(index::add);
+        assertThat(toList(index)).containsExactlyElementsOf(new TreeSet<>(ksuid40s));
+    }
+
+    @Test
+    public void floorAndCeiling() {
+        final List<Ksuid40> ksuid40s = randomKsuids(3_000, 100_000);
+        final Ksuid40SortedIndex index = new Ksuid40SortedIndex();
+        final TreeSet<Ksuid40> expected = new TreeSet<>();
+        for (int i = 0; i < ksuid40s.size(); i += 2) {
+            index.add(ksuid40s.get(i));
+            expected.add(ksuid40s.get(i));
+        }
+        for (final Ksuid40 ksuid40 : ksuid40s) {
+            assertThat(index.floor(ksuid40)).isEqualTo(expected.floor(ksuid40));
+            assertThat(index.ceiling(ksuid40)).isEqualTo(expected.ceiling(ksuid40));
+        }
+    }
+
+    @Test
+    public void range() {
+        final List<Ksuid40> ksuid40s = randomKsuids(5_000, 1_000);
+        final Ksuid40SortedIndex index = new Ksuid40SortedIndex();
+        ksuid40s.forEach(index::add);
+        final TreeSet<Ksuid40> sorted = new TreeSet<>(ksuid40s);
+        final Random random = new Random(4);
+        for (int i = 0; i < 100; i++) {
+            final Instant from = Instant.ofEpochSecond(START - 10 + random.nextInt(1_020), random.nextInt(2) * 500_000_000);
+            final Instant to = from.plusSeconds(random.nextInt(100));
+            final List<Ksuid40> expected = sorted.stream()
+                                                 .filter(k -> !k.getInstant().isBefore(from) && k.getInstant().isBefore(to))
+                                                 .collect(Collectors.toList());
+            assertThat(index.range(from, to).toArray()).containsExactlyElementsOf(expected);
+        }
+        assertThat(index.range(Instant.ofEpochSecond(START), Instant.ofEpochSecond(START + 1_000)).size())
+                .isEqualTo(sorted.size());
+        assertThat(index.range(Instant.ofEpochSecond(START + 10), Instant.ofEpochSecond(START)).size()).isZero();
+    }
+
+    @Test
+    public void rangeStartingAtZeroPayload() {
+        final Ksuid40 zero = Ksuid40.newBuilder().withTimestamp(START).withPayload(new byte[16]).build();
+        final Ksuid40 other = GENERATOR.newKsuid(Instant.ofEpochSecond(START));
+        final Ksuid40SortedIndex index = new Ksuid40SortedIndex();
+        index.add(other);
+        index.add(zero);
+        assertThat(index.range(Instant.ofEpochSecond(START), Instant.ofEpochSecond(START + 1)).toArray())
+                .containsExactly(zero, other);
+    }
+
+    @Test
+    public void iteratorFailsFast() {
+        final Ksuid40SortedIndex index = new Ksuid40SortedIndex();
+        index.add(Ksuid40.newKsuid());
+        final Iterator<Ksuid40> iterator = index.iterator();
+        index.add(Ksuid40.newKsuid());
+        assertThatCode(iterator::next).isInstanceOf(ConcurrentModificationException.class);
+    }
+}
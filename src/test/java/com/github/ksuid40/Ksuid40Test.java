@@ -6,19 +6,34 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 import java.util.TimeZone;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 
@@ -78,6 +93,79 @@ public class Ksuid40Test {
         assertThat(ksuid40.toString()).isEqualTo(KSUID_STRING);
     }
 
+    @ParameterizedTest
+    @MethodSource("ksuidProvider")
+    public void toStringIsCached(final Ksuid40 ksuid40) {
+        assertThat(ksuid40.toString()).isSameAs(ksuid40.toString());
+    }
+
+    @ParameterizedTest
+    @MethodSource("ksuidProvider")
+    public void encodeTo(final Ksuid40 ksuid40) {
+        final char[] chars = new char[31];
+        ksuid40.encodeTo(chars, 1);
+        assertThat(new String(chars, 1, 29)).isEqualTo(KSUID_STRING);
+
+        final byte[] bytes = new byte[31];
+        ksuid40.encodeAsciiTo(bytes, 2);
+        assertThat(new String(bytes, 2, 29, StandardCharsets.US_ASCII)).isEqualTo(KSUID_STRING);
+
+        assertThatCode(() -> ksuid40.encodeTo(new char[29], 1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatCode(() -> ksuid40.encodeAsciiTo(new byte[28], 0)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @ParameterizedTest
+    @MethodSource("ksuidProvider")
+    public void encodeToByteBuffer(final Ksuid40 ksuid40) {
+        for (final ByteBuffer buffer : Arrays.asList(ByteBuffer.allocate(32), ByteBuffer.allocateDirect(32))) {
+            buffer.put((byte) '[');
+            ksuid40.encodeTo(buffer);
+            buffer.put((byte) ']');
+            assertThat(buffer.position()).isEqualTo(31);
+
+            final byte[] bytes = new byte[31];
+            buffer.flip();
+            buffer.get(bytes);
+            assertThat(new String(bytes, StandardCharsets.US_ASCII)).isEqualTo("[" + KSUID_STRING + "]");
+            assertThatCode(() -> ksuid40.encodeTo(buffer)).isInstanceOf(BufferOverflowException.class);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("ksuidProvider")
+    public void appendTo(final Ksuid40 ksuid40) throws IOException {
+        assertThat(ksuid40.appendTo(new StringBuilder("id=")).toString()).isEqualTo("id=" + KSUID_STRING);
+        final StringWriter writer = new StringWriter();
+        assertThat(ksuid40.appendTo(writer)).isSameAs(writer);
+        assertThat(writer.toString()).isEqualTo(KSUID_STRING);
+        assertThat(ksuid40.appendTo(new StringBuffer("id=")).toString()).isEqualTo("id=" + KSUID_STRING);
+    }
+
+    @Test
+    public void encodeWithoutCachedString() throws IOException {
+        final Ksuid40 ksuid40 = Ksuid40.fromWords(TIMESTAMP, KSUID_64s[0].payloadHigh(), KSUID_64s[0].payloadLow());
+        assertThat(ksuid40.appendTo(new StringBuilder("id=")).toString()).isEqualTo("id=" + KSUID_STRING);
+        final StringWriter writer = new StringWriter();
+        ksuid40.appendTo(writer);
+        assertThat(writer.toString()).isEqualTo(KSUID_STRING);
+        assertThat(ksuid40.appendTo(new StringBuffer()).toString()).isEqualTo(KSUID_STRING);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(30);
+        buffer.position(1);
+        ksuid40.encodeTo(buffer);
+        assertThat(buffer.position()).isEqualTo(30);
+        final byte[] bytes = new byte[29];
+        ((ByteBuffer) buffer.position(1)).get(bytes);
+        assertThat(new String(bytes, StandardCharsets.US_ASCII)).isEqualTo(KSUID_STRING);
+    }
+
+    @Test
+    public void fromStringKeepsCanonicalString() {
+        assertThat(Ksuid40.fromString(KSUID_STRING).toString()).isSameAs(KSUID_STRING);
+        assertThat(Ksuid40.fromString("00" + KSUID_STRING).toString()).isEqualTo(KSUID_STRING);
+        assertThat(Ksuid40.newBuilder().withKsuidString(KSUID_STRING).withKsuidBytes(new byte[21]).build().toString())
+                .isEqualTo("00000000000000000000000000000");
+    }
+
     @ParameterizedTest
     @MethodSource("ksuidProvider")
     public void fromString(final Ksuid40 ksuid40) {
@@ -85,6 +173,115 @@ public class Ksuid40Test {
         assertThat(Ksuid40.fromString(ksuidString)).isEqualTo(ksuid40);
     }
     
+    @Test
+    public void parseRange() {
+        final String path = "/events/" + KSUID_STRING + "/payload";
+        assertThat(Ksuid40.parse(path, 8, 8 + 29)).isEqualTo(KSUID_64s[0]);
+        assertThat(Ksuid40.parse(new StringBuilder(path), 8, 8 + 29)).isEqualTo(KSUID_64s[0]);
+        assertThat(Ksuid40.parse(path, 10, 8 + 29)).isEqualTo(KSUID_64s[0]);
+        assertThatCode(() -> Ksuid40.parse(path, 8, path.length())).isInstanceOf(IllegalArgumentException.class);
+        assertThatCode(() -> Ksuid40.parse(path, 30, 29)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatCode(() -> Ksuid40.parse(path, 8, path.length() + 1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    public void parseAscii() {
+        final byte[] bytes = ("id:" + KSUID_STRING).getBytes(StandardCharsets.US_ASCII);
+        assertThat(Ksuid40.parseAscii(bytes, 3)).isEqualTo(KSUID_64s[0]);
+        assertThatCode(() -> Ksuid40.parseAscii(bytes, 4)).isInstanceOf(IndexOutOfBoundsException.class);
+        bytes[5] = (byte) 0xC3;
+        assertThatCode(() -> Ksuid40.parseAscii(bytes, 3))
+                .isExactlyInstanceOf(IllegalArgumentException.class)
+                .hasMessage("'\u00c3' is not a valid Base62 character");
+    }
+
+    @Test
+    public void parseByteBuffer() {
+        final byte[] ascii = (KSUID_STRING + KSUID_STRING + "-").getBytes(StandardCharsets.US_ASCII);
+        final ByteBuffer direct = ByteBuffer.allocateDirect(ascii.length);
+        direct.put(ascii).flip();
+        for (final ByteBuffer buffer : Arrays.asList(ByteBuffer.wrap(ascii), direct)) {
+            assertThat(Ksuid40.parse(buffer)).isEqualTo(KSUID_64s[0]);
+            assertThat(Ksuid40.parse(buffer)).isEqualTo(KSUID_64s[0]);
+            assertThat(buffer.position()).isEqualTo(58);
+            assertThatCode(() -> Ksuid40.parse(buffer)).isInstanceOf(BufferUnderflowException.class);
+        }
+
+        final ByteBuffer invalid = ByteBuffer.wrap(("-" + KSUID_STRING.substring(1)).getBytes(StandardCharsets.US_ASCII));
+        assertThatCode(() -> Ksuid40.parse(invalid)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(invalid.position()).isZero();
+    }
+
+    @Test
+    public void fromStringWithMaximumValue() {
+        final byte[] payload = new byte[16];
+        Arrays.fill(payload, (byte) 0xFF);
+        final Ksuid40 ksuid40 = Ksuid40.newBuilder().withTimestamp(0xFFFFFFFFFFL).withPayload(payload).build();
+        assertThat(Ksuid40.fromString(ksuid40.toString())).isEqualTo(ksuid40);
+    }
+
+    @Test
+    public void fromStringWithInvalidCharacter() {
+        assertThatCode(() -> Ksuid40.fromString("000ujtsYcgvSTl8PAuAdqWYSMnLO-"))
+                .isExactlyInstanceOf(IllegalArgumentException.class)
+                .hasMessage("'-' is not a valid Base62 character");
+    }
+
+    @ParameterizedTest
+    @MethodSource("ksuidProvider")
+    public void writeHexTo(final Ksuid40 ksuid40) {
+        final char[] chars = new char[44];
+        ksuid40.writeRawHexTo(chars, 1);
+        assertThat(new String(chars, 1, 42)).isEqualTo(Hex.hexEncode(ksuid40.asBytes()));
+        ksuid40.writePayloadHexTo(chars, 12);
+        assertThat(new String(chars, 12, 32)).isEqualTo(ksuid40.getPayload());
+        assertThatCode(() -> ksuid40.writeRawHexTo(chars, 3)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatCode(() -> ksuid40.writePayloadHexTo(chars, 13)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @ParameterizedTest
+    @MethodSource("ksuidProvider")
+    public void writeBytesTo(final Ksuid40 ksuid40) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ksuid40.writeRawTo(out);
+        ksuid40.writePayloadTo(out);
+        assertThat(Hex.hexEncode(out.toByteArray())).isEqualTo(ksuid40.asRaw() + ksuid40.getPayload());
+    }
+
+    @ParameterizedTest
+    @MethodSource("ksuidProvider")
+    public void fromBytes(final Ksuid40 ksuid40) {
+        final byte[] bytes = new byte[25];
+        System.arraycopy(ksuid40.asBytes(), 0, bytes, 3, 21);
+        assertThat(Ksuid40.fromBytes(bytes, 3)).isEqualTo(ksuid40);
+        assertThat(Ksuid40.fromBytes(ksuid40.asBytes(), 0)).isEqualTo(ksuid40);
+        assertThatCode(() -> Ksuid40.fromBytes(bytes, 5)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatCode(() -> Ksuid40.fromBytes(bytes, -1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    public void isValid() {
+        final Ksuid40 ksuid40 = Ksuid40.newKsuid();
+        assertThat(Ksuid40.isValid(ksuid40.toString())).isTrue();
+        assertThat(Ksuid40.isValid(new StringBuilder(ksuid40.toString()))).isTrue();
+        assertThat(Ksuid40.isValid(null)).isFalse();
+        assertThat(Ksuid40.isValid("")).isFalse();
+        assertThat(Ksuid40.isValid("aaaaaaaaaaaaaaaaaaaaaaaaa")).isFalse();
+        assertThat(Ksuid40.isValid("000ujtsYcgvSTl8PAuAdqWYSMnLO-")).isFalse();
+        assertThat(Ksuid40.isValid("zzzzzzzzzzzzzzzzzzzzzzzzzzzzz")).isFalse();
+    }
+
+    @Test
+    public void tryParse() {
+        final Ksuid40 ksuid40 = Ksuid40.newKsuid();
+        assertThat(Ksuid40.tryParse(ksuid40.toString())).contains(ksuid40);
+        assertThat(Ksuid40.tryParse("0" + ksuid40)).contains(ksuid40);
+        assertThat(Ksuid40.tryParse(null)).isEmpty();
+        assertThat(Ksuid40.tryParse("aaaaaaaaaaaaaaaaaaaaaaaaa")).isEmpty();
+        assertThat(Ksuid40.tryParse("000ujtsYcgvSTl8PAuAdqWYSMnLO-")).isEmpty();
+        assertThat(Ksuid40.tryParse("zzzzzzzzzzzzzzzzzzzzzzzzzzzzz")).isEmpty();
+    }
+
     @Test
     public void testNewKsuid() {
         assertThat(Ksuid40.newKsuid()).isNotNull();
@@ -150,6 +347,40 @@ public class Ksuid40Test {
         assertThat(KSUID_64s[1]).isEqualTo(KSUID_64s[2]);
     }
 
+    @ParameterizedTest
+    @MethodSource("ksuidProvider")
+    public void serializationRoundTrip(final Ksuid40 ksuid40) throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(ksuid40);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertThat(in.readObject()).isEqualTo(ksuid40);
+        }
+    }
+
+    @Test
+    public void deserializeArrayBackedForm() throws Exception {
+        // Written by the release that held the payload and KSUID bytes in arrays
+        final String serialized = "rO0ABXNyABpjb20uZ2l0aHViLmtzdWlkNDAuS3N1aWQ0MKlLTI4dPd3JAgADSgAJdGltZXN0YW1wWwAKa3N1aWRCeXRlc3QAAltC"
+                + "WwAHcGF5bG9hZHEAfgABeHAAAAAABmn373VyAAJbQqzzF/gGCFTgAgAAeHAAAAAVAAZp9++1oc00tfmdEVT7aFM0XJc1dXEAfgADAAAA"
+                + "ELWhzTS1+Z0RVPtoUzRclzU=";
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(serialized)))) {
+            assertThat(in.readObject()).isEqualTo(KSUID_64s[0]);
+        }
+    }
+
+    @Test
+    public void hashCodeSpreadsGeneratedKsuids() {
+        final Ksuid40Generator generator = new Ksuid40Generator(new Random(5L));
+        final Instant instant = Instant.now();
+        final long distinct = IntStream.range(0, 10_000)
+                .map(i -> generator.newKsuid(instant).hashCode())
+                .distinct()
+                .count();
+        assertThat(distinct).isGreaterThan(9_900);
+    }
+
     @Test
     public void comparableIsConsistentWithEquals() {
         assertThat(KSUID_64s[0].compareTo(KSUID_64s[1])).isEqualTo(0);
@@ -175,6 +406,23 @@ public class Ksuid40Test {
         assertThat(list).isEqualTo(orderedList);
     }
 
+    @Test
+    public void comparableOrdersPayloadAsUnsignedBytes() {
+        final Random random = new Random(17L);
+        final List<Ksuid40> list = IntStream.range(0, 2_000)
+                .mapToObj(i -> {
+                    final byte[] payload = new byte[16];
+                    random.nextBytes(payload);
+                    return Ksuid40.newBuilder().withTimestamp(random.nextInt(3)).withPayload(payload).build();
+                })
+                .collect(toList());
+
+        final List<Ksuid40> byRaw = new ArrayList<>(list);
+        byRaw.sort(Comparator.comparing(Ksuid40::asRaw));
+        Collections.sort(list);
+        assertThat(list).isEqualTo(byRaw);
+    }
+
     @ParameterizedTest
     @MethodSource("inCorrectSizeProvider")
     public void constructWithIncorrectPayloadSize(final int incorrectSize) {
@@ -0,0 +1,141 @@
+package com.github.ksuid40;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+public class Ksuid40ViewTest {
+    private static final String KSUID_STRING = "000ujtsYcgvSTl8PAuAdqWYSMnLOv";
+    private static final Ksuid40 KSUID = Ksuid40.fromString(KSUID_STRING);
+
+    private static Stream<Arguments> bufferProvider() {
+        return Stream.of(
+          Arguments.of(ByteBuffer.allocate(64)),
+          Arguments.of(ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN)),
+          Arguments.of(ByteBuffer.allocateDirect(64)),
+          Arguments.of(ByteBuffer.allocateDirect(64).order(ByteOrder.LITTLE_ENDIAN))
+        );
+    }
+
+    private static ByteBuffer put(final ByteBuffer buffer, final int offset, final Ksuid40 ksuid40) {
+        final byte[] bytes = ksuid40.asBytes();
+        for (int i = 0; i < bytes.length; i++) {
+            buffer.put(offset + i, bytes[i]);
+        }
+        return buffer;
+    }
+
+    @ParameterizedTest
+    @MethodSource("bufferProvider")
+    public void components(final ByteBuffer buffer) {
+        final Ksuid40View view = new Ksuid40View().wrap(put(buffer, 7, KSUID), 7);
+        assertThat(view.buffer()).isSameAs(buffer);
+        assertThat(view.offset()).isEqualTo(7);
+        assertThat(view.getTimestamp()).isEqualTo(KSUID.getTimestamp());
+        assertThat(view.getInstant()).isEqualTo(KSUID.getInstant());
+        assertThat(view.getPayloadHigh()).isEqualTo(0xB5A1CD34B5F99D11L);
+        assertThat(view.getPayloadLow()).isEqualTo(0x54FB6853345C9735L);
+        assertThat(view.toKsuid()).isEqualTo(KSUID);
+        assertThat(view.toString()).isEqualTo(KSUID_STRING);
+        assertThat(buffer.position()).isZero();
+    }
+
+    @ParameterizedTest
+    @MethodSource("bufferProvider")
+    public void maximumValue(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[Ksuid40.TOTAL_BYTES];
+        Arrays.fill(bytes, (byte) 0xFF);
+        final Ksuid40 max = Ksuid40.fromBytes(bytes, 0);
+        final Ksuid40View view = new Ksuid40View().wrap(put(buffer, 43, max), 43);
+        assertThat(view.getTimestamp()).isEqualTo(0xFFFFFFFFFFL);
+        assertThat(view.toKsuid()).isEqualTo(max);
+        assertThat(view.toString()).isEqualTo(max.toString());
+    }
+
+    @ParameterizedTest
+    @MethodSource("bufferProvider")
+    public void repositioning(final ByteBuffer buffer) {
+        final Ksuid40 other = Ksuid40.newKsuid();
+        put(put(buffer, 0, KSUID), 21, other);
+        final Ksuid40View view = new Ksuid40View();
+        assertThat(view.wrap(buffer, 0).contentEquals(KSUID)).isTrue();
+        assertThat(view.contentEquals(other)).isFalse();
+        assertThat(view.wrap(buffer, 21).contentEquals(other)).isTrue();
+        assertThat(view.contentEquals(null)).isFalse();
+    }
+
+    @ParameterizedTest
+    @MethodSource("bufferProvider")
+    public void comparable(final ByteBuffer buffer) {
+        final Ksuid40 later = Ksuid40.newKsuid();
+        put(put(buffer, 0, KSUID), 21, later);
+        final Ksuid40View first = new Ksuid40View().wrap(buffer, 0);
+        final Ksuid40View second = new Ksuid40View().wrap(buffer, 21);
+        assertThat(first.compareTo(second)).isNegative();
+        assertThat(second.compareTo(first)).isPositive();
+        assertThat(first.compareTo(KSUID)).isZero();
+        assertThat(first.compareTo(later)).isNegative();
+        assertThat(second.compareTo(KSUID)).isPositive();
+    }
+
+    @ParameterizedTest
+    @MethodSource("bufferProvider")
+    public void equalsAndHashCode(final ByteBuffer buffer) {
+        put(put(buffer, 0, KSUID), 30, KSUID);
+        final Ksuid40View first = new Ksuid40View().wrap(buffer, 0);
+        final Ksuid40View second = new Ksuid40View().wrap(ByteBuffer.wrap(KSUID.asBytes()), 0);
+        assertThat(first).isEqualTo(second);
+        assertThat(first.hashCode()).isEqualTo(KSUID.hashCode());
+        assertThat(second.hashCode()).isEqualTo(KSUID.hashCode());
+        assertThat(first).isNotEqualTo(KSUID);
+        assertThat(first).isNotEqualTo(new Ksuid40View().wrap(buffer, 1));
+    }
+
+    @ParameterizedTest
+    @MethodSource("bufferProvider")
+    public void encodeTo(final ByteBuffer buffer) {
+        final Ksuid40View view = new Ksuid40View().wrap(put(buffer, 0, KSUID), 0);
+
+        final char[] chars = new char[31];
+        view.encodeTo(chars, 1);
+        assertThat(new String(chars, 1, 29)).isEqualTo(KSUID_STRING);
+
+        final byte[] bytes = new byte[31];
+        view.encodeAsciiTo(bytes, 2);
+        assertThat(new String(bytes, 2, 29, StandardCharsets.US_ASCII)).isEqualTo(KSUID_STRING);
+
+        for (final ByteBuffer dst : Arrays.asList(ByteBuffer.allocate(40), ByteBuffer.allocateDirect(40))) {
+            dst.position(3);
+            view.encodeTo(dst);
+            view.encodeTo(ByteBuffer.allocateDirect(29));
+            assertThat(dst.position()).isEqualTo(32);
+            final byte[] written = new byte[29];
+            dst.position(3);
+            dst.get(written);
+            assertThat(new String(written, StandardCharsets.US_ASCII)).isEqualTo(KSUID_STRING);
+            assertThatCode(() -> view.encodeTo(dst)).isInstanceOf(BufferOverflowException.class);
+        }
+    }
+
+    @Test
+    public void wrapOutOfBounds() {
+        final ByteBuffer buffer = ByteBuffer.allocate(30);
+        final Ksuid40View view = new Ksuid40View();
+        assertThatCode(() -> view.wrap(buffer, 10)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatCode(() -> view.wrap(buffer, -1)).isInstanceOf(IndexOutOfBoundsException.class);
+        buffer.limit(20);
+        assertThatCode(() -> view.wrap(buffer, 0)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThat(view.wrap(ByteBuffer.allocate(30), 9).offset()).isEqualTo(9);
+    }
+}
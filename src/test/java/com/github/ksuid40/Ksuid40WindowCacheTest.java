@@ -0,0 +1,181 @@
+package com.github.ksuid40;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+public class Ksuid40WindowCacheTest {
+    private static final Instant START = Instant.ofEpochSecond(1_600_000_000L);
+    private static final Ksuid40Generator GENERATOR = new Ksuid40Generator(new Random(5));
+
+    static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(final Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(final Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    @Test
+    public void addContainsRemove() {
+        final MutableClock clock = new MutableClock(START);
+        final Ksuid40WindowCache cache = new Ksuid40WindowCache(Duration.ofMinutes(1), Duration.ofSeconds(10), 100, clock);
+        final Ksuid40 ksuid40 = GENERATOR.newKsuid(START.minusSeconds(5));
+        assertThat(cache.contains(ksuid40)).isFalse();
+        assertThat(cache.add(ksuid40)).isTrue();
+        assertThat(cache.add(ksuid40)).isFalse();
+        assertThat(cache.contains(ksuid40)).isTrue();
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.hitCount()).isEqualTo(2);
+        assertThat(cache.missCount()).isEqualTo(2);
+        assertThat(cache.hitRate()).isEqualTo(0.5);
+        assertThat(cache.remove(ksuid40)).isTrue();
+        assertThat(cache.remove(ksuid40)).isFalse();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void rejectsIdsOutsideOfWindow() {
+        final MutableClock clock = new MutableClock(START);
+        final Ksuid40WindowCache cache = new Ksuid40WindowCache(Duration.ofMinutes(1), Duration.ofSeconds(10), 100, clock);
+        final Ksuid40 old = GENERATOR.newKsuid(START.minusSeconds(61));
+        final Ksuid40 future = GENERATOR.newKsuid(START.plusSeconds(20));
+        final Ksuid40 ahead = GENERATOR.newKsuid(START.plusSeconds(10));
+        assertThat(cache.isExpired(old)).isTrue();
+        assertThat(cache.add(old)).isFalse();
+        assertThat(cache.isExpired(future)).isTrue();
+        assertThat(cache.add(future)).isFalse();
+        assertThat(cache.isExpired(ahead)).isFalse();
+        assertThat(cache.add(ahead)).isTrue();
+        assertThat(cache.rejectionCount()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void dropsBucketsAsWindowSlides() {
+        final MutableClock clock = new MutableClock(START);
+        final Ksuid40WindowCache cache = new Ksuid40WindowCache(Duration.ofSeconds(30), Duration.ofSeconds(10), 1000, clock);
+        final Ksuid40 first = GENERATOR.newKsuid(START.minusSeconds(25));
+        final Ksuid40 second = GENERATOR.newKsuid(START.minusSeconds(5));
+        assertThat(cache.add(first)).isTrue();
+        assertThat(cache.add(second)).isTrue();
+        assertThat(cache.size()).isEqualTo(2);
+
+        clock.advance(Duration.ofSeconds(10));
+        cache.evictExpired();
+        assertThat(cache.isExpired(first)).isTrue();
+        assertThat(cache.contains(first)).isFalse();
+        assertThat(cache.contains(second)).isTrue();
+        assertThat(cache.size()).isEqualTo(1);
+
+        // The slot of the first bucket is reused for later ids without evictExpired
+        clock.advance(Duration.ofSeconds(30));
+        final Ksuid40 third = GENERATOR.newKsuid(clock.instant());
+        assertThat(cache.add(third)).isTrue();
+        assertThat(cache.contains(second)).isFalse();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void dropsOldestBucketAtMaximumSize() {
+        final MutableClock clock = new MutableClock(START);
+        final Ksuid40WindowCache cache = new Ksuid40WindowCache(Duration.ofMinutes(1), Duration.ofSeconds(10), 10, clock);
+        final List<Ksuid40> old = IntStream.range(0, 5).mapToObj(i -> GENERATOR.newKsuid(START.minusSeconds(50))).collect(Collectors.toList());
+        final List<Ksuid40> recent = IntStream.range(0, 6).mapToObj(i -> GENERATOR.newKsuid(START)).collect(Collectors.toList());
+        old.forEach(cache::add);
+        recent.forEach(cache::add);
+        assertThat(cache.size()).isEqualTo(6);
+        assertThat(old).noneMatch(cache::contains);
+        assertThat(old).allMatch(cache::isExpired);
+        assertThat(recent).allMatch(cache::contains);
+    }
+
+    @Test
+    public void keepsAcceptingCurrentIdsAtMaximumSize() {
+        final MutableClock clock = new MutableClock(START);
+        final Ksuid40WindowCache cache = new Ksuid40WindowCache(Duration.ofMinutes(60), Duration.ofMinutes(1), 3, clock);
+        for (int i = 0; i < 4; i++) {
+            assertThat(cache.add(GENERATOR.newKsuid(START))).isTrue();
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(3);
+        final Ksuid40 ksuid40 = GENERATOR.newKsuid(START);
+        assertThat(cache.isExpired(ksuid40)).isFalse();
+        assertThat(cache.add(ksuid40)).isTrue();
+        assertThat(cache.contains(ksuid40)).isTrue();
+        assertThat(cache.size()).isBetween(1L, 3L);
+        assertThat(cache.rejectionCount()).isZero();
+    }
+
+    @Test
+    public void concurrentAddsAreSeenOnce() throws Exception {
+        final Instant now = Instant.now();
+        final List<Ksuid40> ksuid40s = IntStream.range(0, 20000)
+                                               .mapToObj(i -> GENERATOR.newKsuid(now.minusSeconds(i % 50)))
+                                               .collect(Collectors.toList());
+        final Ksuid40WindowCache cache = new Ksuid40WindowCache(Duration.ofMinutes(5), 1_000_000);
+        final AtomicInteger added = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = IntStream.range(0, 4).mapToObj(t -> executor.submit(() -> {
+                for (final Ksuid40 ksuid40 : ksuid40s) {
+                    if (cache.add(ksuid40)) {
+                        added.incrementAndGet();
+                    }
+                }
+            })).collect(Collectors.toList());
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(added.get()).isEqualTo(ksuid40s.size());
+        assertThat(cache.size()).isEqualTo(ksuid40s.size());
+        assertThat(cache.hitCount()).isEqualTo(3L * ksuid40s.size());
+    }
+
+    @Test
+    public void invalidArguments() {
+        final Clock clock = Clock.systemUTC();
+        assertThatCode(() -> new Ksuid40WindowCache(Duration.ofMinutes(1), Duration.ofMillis(1500), 1, clock))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatCode(() -> new Ksuid40WindowCache(Duration.ofSeconds(5), Duration.ofSeconds(10), 1, clock))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatCode(() -> new Ksuid40WindowCache(Duration.ofMinutes(1), 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatCode(() -> new Ksuid40WindowCache(Duration.ZERO, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
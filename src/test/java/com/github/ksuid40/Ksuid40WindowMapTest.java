@@ -0,0 +1,48 @@
+package com.github.ksuid40;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class Ksuid40WindowMapTest {
+    private static final Instant START = Instant.ofEpochSecond(1_600_000_000L);
+    private static final Ksuid40Generator GENERATOR = new Ksuid40Generator(new Random(6));
+
+    @Test
+    public void putGetRemove() {
+        final Ksuid40WindowCacheTest.MutableClock clock = new Ksuid40WindowCacheTest.MutableClock(START);
+        final Ksuid40WindowMap<String> map = new Ksuid40WindowMap<>(Duration.ofMinutes(1), Duration.ofSeconds(10), 100, clock);
+        final Ksuid40 ksuid40 = GENERATOR.newKsuid(START);
+        assertThat(map.get(ksuid40)).isNull();
+        assertThat(map.putIfAbsent(ksuid40, "a")).isTrue();
+        assertThat(map.putIfAbsent(ksuid40, "b")).isFalse();
+        assertThat(map.get(ksuid40)).isEqualTo("a");
+        assertThat(map.put(ksuid40, "c")).isEqualTo("a");
+        assertThat(map.size()).isEqualTo(1);
+        assertThat(map.hitRate()).isEqualTo(0.5);
+        assertThat(map.remove(ksuid40)).isEqualTo("c");
+        assertThat(map.remove(ksuid40)).isNull();
+        assertThat(map.size()).isZero();
+        assertThat(map.put(ksuid40, null)).isNull();
+        assertThat(map.putIfAbsent(ksuid40, "d")).isFalse();
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void expires() {
+        final Ksuid40WindowCacheTest.MutableClock clock = new Ksuid40WindowCacheTest.MutableClock(START);
+        final Ksuid40WindowMap<String> map = new Ksuid40WindowMap<>(Duration.ofMinutes(1), Duration.ofSeconds(10), 100, clock);
+        final Ksuid40 ksuid40 = GENERATOR.newKsuid(START);
+        assertThat(map.put(ksuid40, "a")).isNull();
+        clock.advance(Duration.ofMinutes(2));
+        assertThat(map.isExpired(ksuid40)).isTrue();
+        assertThat(map.get(ksuid40)).isNull();
+        assertThat(map.put(ksuid40, "b")).isNull();
+        assertThat(map.size()).isZero();
+        assertThat(map.rejectionCount()).isEqualTo(2);
+    }
+}
@@ -236,7 +236,10 @@ public class MainTest {
         final Instant now = Instant.parse("2022-02-09T06:27:52.573Z");
         final Clock clock = Clock.tick(Clock.fixed(now, ZoneOffset.UTC), Duration.ofSeconds(2));
 
-        final Main main = new Main(printStream, exitCodeConsumer, new Random(123L), clock);
+        final Random random = new Random(123L);
+        // Skip the payload generators once drew to check themselves, keeping the expected ids
+        random.nextBytes(new byte[16]);
+        final Main main = new Main(printStream, exitCodeConsumer, random, clock);
         try {
             main.run(args);
         } catch (final ExitException ignore) {